@@ -1,5 +1,6 @@
 plugins {
     id("impactor.api-conventions")
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 dependencies {
@@ -53,4 +54,8 @@ dependencies {
 
 tasks.withType(Test::class) {
     useJUnitPlatform()
-}
\ No newline at end of file
+}
+
+jmh {
+    jmhVersion.set("1.37")
+}
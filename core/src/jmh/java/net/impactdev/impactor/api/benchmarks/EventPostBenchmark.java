@@ -0,0 +1,92 @@
+/*
+ * This file is part of Impactor, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2018-2022 NickImpact
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package net.impactdev.impactor.api.benchmarks;
+
+import net.impactdev.impactor.api.events.ImpactorEvent;
+import net.impactdev.impactor.api.events.ImpactorEventBus;
+import net.kyori.event.EventSubscription;
+import net.kyori.event.PostResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of {@link ImpactorEventBus#post(ImpactorEvent)} for an event with the given number
+ * of subscribers. Running with <code>-prof gc</code> additionally reports the allocation rate per post, which
+ * is expected to be zero for every case where dispatch succeeds.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventPostBenchmark {
+
+    @Param({ "0", "1", "50" })
+    public int subscribers;
+
+    private final List<EventSubscription> subscriptions = new ArrayList<>();
+    private final PostEvent event = new PostEvent();
+
+    @Setup
+    public void setup() {
+        for(int i = 0; i < this.subscribers; i++) {
+            this.subscriptions.add(ImpactorEventBus.bus().subscribe(PostEvent.class, event -> event.received++));
+        }
+    }
+
+    @TearDown
+    public void teardown() {
+        this.subscriptions.forEach(EventSubscription::unsubscribe);
+        this.subscriptions.clear();
+    }
+
+    @Benchmark
+    public PostResult post() {
+        return ImpactorEventBus.bus().post(this.event);
+    }
+
+    public static final class PostEvent implements ImpactorEvent {
+
+        private int received;
+
+    }
+
+}
@@ -0,0 +1,107 @@
+/*
+ * This file is part of Impactor, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2018-2022 NickImpact
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package net.impactdev.impactor.api.benchmarks;
+
+import net.impactdev.impactor.api.events.ImpactorEvent;
+import net.impactdev.impactor.api.events.ImpactorEventBus;
+import net.kyori.event.EventSubscription;
+import net.kyori.event.PostResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures single threaded post throughput for an event whose subscribers are spread across its type hierarchy,
+ * in the style of <code>ClientConnectionEvent.Join</code>. Each of the event's class, its abstract superclass,
+ * and the two interfaces it inherits from receives the given number of subscribers, all of which must be
+ * resolved by the dispatch table compiled for the concrete class.
+ *
+ * <p>The {@link #recompile()} case unsubscribes and resubscribes a single subscriber ahead of every post, such
+ * that each post pays for compiling a fresh table, as an upper bound on the cost of subscription churn.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HierarchyDispatchBenchmark {
+
+    @Param({ "1", "10" })
+    public int subscribers;
+
+    private final List<EventSubscription> subscriptions = new ArrayList<>();
+    private final Join event = new Join();
+
+    @Setup
+    public void setup() {
+        for(int i = 0; i < this.subscribers; i++) {
+            this.subscriptions.add(ImpactorEventBus.bus().subscribe(Connection.class, event -> {}));
+            this.subscriptions.add(ImpactorEventBus.bus().subscribe(Player.class, event -> {}));
+            this.subscriptions.add(ImpactorEventBus.bus().subscribe(AbstractConnection.class, event -> {}));
+            this.subscriptions.add(ImpactorEventBus.bus().subscribe(Join.class, event -> {}));
+        }
+    }
+
+    @TearDown
+    public void teardown() {
+        this.subscriptions.forEach(EventSubscription::unsubscribe);
+        this.subscriptions.clear();
+    }
+
+    @Benchmark
+    public PostResult post() {
+        return ImpactorEventBus.bus().post(this.event);
+    }
+
+    @Benchmark
+    public PostResult recompile() {
+        ImpactorEventBus.bus().subscribe(Join.class, event -> {}).unsubscribe();
+        return ImpactorEventBus.bus().post(this.event);
+    }
+
+    public interface Connection extends ImpactorEvent {}
+
+    public interface Player extends ImpactorEvent {}
+
+    public abstract static class AbstractConnection implements Connection {}
+
+    public static final class Join extends AbstractConnection implements Player {}
+
+}
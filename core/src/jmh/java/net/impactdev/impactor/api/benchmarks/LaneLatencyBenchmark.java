@@ -0,0 +1,140 @@
+/*
+ * This file is part of Impactor, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2018-2022 NickImpact
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package net.impactdev.impactor.api.benchmarks;
+
+import net.impactdev.impactor.api.logging.NoOpLogger;
+import net.impactdev.impactor.api.scheduler.v2.lanes.Lane;
+import net.impactdev.impactor.api.scheduler.v2.lanes.LaneScheduler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Measures the latency of an interactive task submitted while a feeder thread keeps the workers saturated
+ * with bulk work, comparing the {@link Lane#INTERACTIVE interactive lane} of a {@link LaneScheduler} with a
+ * single FIFO {@link ForkJoinPool} of the same size, as historically shared by all asynchronous work.
+ *
+ * <p>The feeder holds {@link #BACKLOG} bulk tasks of {@link #BULK_NANOS} nanoseconds each in the queue at all
+ * times, such that a FIFO pool makes every interactive task wait behind the entire backlog. The upper
+ * percentiles of the sampled distribution are the figures of interest.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class LaneLatencyBenchmark {
+
+    private static final int WORKERS = 4;
+    private static final int BACKLOG = 1000;
+    private static final long BULK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private LaneScheduler lanes;
+    private ForkJoinPool fifo;
+    private Thread feeder;
+    private volatile boolean feeding;
+
+    @Param({ "lanes", "fifo" })
+    public String scheduler;
+
+    @Setup
+    public void setup() {
+        this.lanes = new LaneScheduler(LaneScheduler.KEY, WORKERS, new NoOpLogger());
+        this.fifo = new ForkJoinPool(WORKERS);
+
+        boolean lanes = this.scheduler.equals("lanes");
+        this.feeding = true;
+        this.feeder = new Thread(() -> {
+            while(this.feeding) {
+                if(this.pending.get() >= BACKLOG) {
+                    LockSupport.parkNanos(BULK_NANOS);
+                    continue;
+                }
+
+                this.pending.incrementAndGet();
+                if(lanes) {
+                    this.lanes.publish(Lane.BULK, this::bulk);
+                } else {
+                    this.fifo.execute(this::bulk);
+                }
+            }
+        }, "Lane Benchmark Feeder");
+        this.feeder.setDaemon(true);
+        this.feeder.start();
+
+        while(this.pending.get() < BACKLOG) {
+            Thread.onSpinWait();
+        }
+    }
+
+    @TearDown
+    public void teardown() throws InterruptedException {
+        this.feeding = false;
+        this.feeder.join();
+        this.lanes.shutdown();
+        this.fifo.shutdownNow();
+    }
+
+    @Benchmark
+    public Void interactive() {
+        CompletableFuture<Void> executed = new CompletableFuture<>();
+        if(this.scheduler.equals("lanes")) {
+            this.lanes.publish(Lane.INTERACTIVE, () -> executed.complete(null));
+        } else {
+            this.fifo.execute(() -> executed.complete(null));
+        }
+
+        return executed.join();
+    }
+
+    private void bulk() {
+        long end = System.nanoTime() + BULK_NANOS;
+        while(System.nanoTime() - end < 0) {
+            Thread.onSpinWait();
+        }
+
+        this.pending.decrementAndGet();
+    }
+
+}
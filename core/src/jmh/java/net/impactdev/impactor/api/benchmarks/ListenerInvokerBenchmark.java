@@ -0,0 +1,129 @@
+/*
+ * This file is part of Impactor, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2018-2022 NickImpact
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package net.impactdev.impactor.api.benchmarks;
+
+import net.impactdev.impactor.api.events.ImpactorEvent;
+import net.impactdev.impactor.api.events.ImpactorEventBus;
+import net.impactdev.impactor.api.events.Listen;
+import net.kyori.event.EventSubscription;
+import net.kyori.event.PostResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the cost of posting an event to a single subscriber, where that subscriber is either a hand-written
+ * lambda, an annotated method invoked through the invoker generated by
+ * {@link ImpactorEventBus#register(Object, MethodHandles.Lookup)}, or an annotated method invoked through
+ * {@link Method#invoke(Object, Object...)} as a reflective adapter would. Each case posts an event type of its
+ * own, such that the subscribers of one case are never dispatched by another.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ListenerInvokerBenchmark {
+
+    private final List<EventSubscription> subscriptions = new ArrayList<>();
+    private final Listener listener = new Listener();
+
+    private final LambdaEvent lambda = new LambdaEvent();
+    private final GeneratedEvent generated = new GeneratedEvent();
+    private final ReflectiveEvent reflective = new ReflectiveEvent();
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        ImpactorEventBus bus = ImpactorEventBus.bus();
+        this.subscriptions.add(bus.subscribe(LambdaEvent.class, this.listener::lambda));
+        this.subscriptions.add(bus.register(this.listener, MethodHandles.lookup()));
+
+        Method method = Listener.class.getMethod("reflective", ReflectiveEvent.class);
+        this.subscriptions.add(bus.subscribe(ReflectiveEvent.class, event -> method.invoke(this.listener, event)));
+    }
+
+    @TearDown
+    public void teardown() {
+        this.subscriptions.forEach(EventSubscription::unsubscribe);
+        this.subscriptions.clear();
+    }
+
+    @Benchmark
+    public PostResult lambda() {
+        return ImpactorEventBus.bus().post(this.lambda);
+    }
+
+    @Benchmark
+    public PostResult generated() {
+        return ImpactorEventBus.bus().post(this.generated);
+    }
+
+    @Benchmark
+    public PostResult reflective() {
+        return ImpactorEventBus.bus().post(this.reflective);
+    }
+
+    public static final class LambdaEvent implements ImpactorEvent {}
+
+    public static final class GeneratedEvent implements ImpactorEvent {}
+
+    public static final class ReflectiveEvent implements ImpactorEvent {}
+
+    public static final class Listener {
+
+        private long received;
+
+        public void lambda(LambdaEvent event) {
+            this.received++;
+        }
+
+        @Listen
+        public void generated(GeneratedEvent event) {
+            this.received++;
+        }
+
+        public void reflective(ReflectiveEvent event) {
+            this.received++;
+        }
+
+    }
+
+}
@@ -0,0 +1,109 @@
+/*
+ * This file is part of Impactor, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2018-2022 NickImpact
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package net.impactdev.impactor.api.benchmarks;
+
+import net.impactdev.impactor.api.events.ImpactorEvent;
+import net.impactdev.impactor.api.events.ImpactorEventBus;
+import net.kyori.event.EventSubscription;
+import net.kyori.event.PostResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures post throughput for an event with 50 subscribers while other threads continuously subscribe and
+ * unsubscribe, as scoreboard updaters and UI views do while players join and leave. Four threads post, while
+ * two threads churn subscriptions, both of which are reported per thread group.
+ *
+ * <p>Churn either targets an unrelated event type, which should leave the posted event's dispatch table
+ * untouched, or the posted event type itself, which forces its table to be recompiled after every write.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RegistryContentionBenchmark {
+
+    private static final int SUBSCRIBERS = 50;
+
+    @Param({ "other", "same" })
+    public String churn;
+
+    private final List<EventSubscription> subscriptions = new ArrayList<>();
+    private final HotEvent event = new HotEvent();
+    private Class<? extends ImpactorEvent> target;
+
+    @Setup
+    public void setup() {
+        for(int i = 0; i < SUBSCRIBERS; i++) {
+            this.subscriptions.add(ImpactorEventBus.bus().subscribe(HotEvent.class, event -> {}));
+        }
+
+        this.target = this.churn.equals("same") ? HotEvent.class : ColdEvent.class;
+    }
+
+    @TearDown
+    public void teardown() {
+        this.subscriptions.forEach(EventSubscription::unsubscribe);
+        this.subscriptions.clear();
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(4)
+    public PostResult post() {
+        return ImpactorEventBus.bus().post(this.event);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(2)
+    public void churn() {
+        ImpactorEventBus.bus().subscribe(this.target, event -> {}).unsubscribe();
+    }
+
+    public static final class HotEvent implements ImpactorEvent {}
+
+    public static final class ColdEvent implements ImpactorEvent {}
+
+}
@@ -0,0 +1,111 @@
+/*
+ * This file is part of Impactor, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2018-2022 NickImpact
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package net.impactdev.impactor.api.benchmarks;
+
+import net.impactdev.impactor.api.logging.NoOpLogger;
+import net.impactdev.impactor.api.scheduler.AbstractJavaScheduler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how late a delayed task fires on an {@link AbstractJavaScheduler} while the given number of
+ * repeating timers are live, comparing a single timer thread against a set of sharded timer threads.
+ *
+ * <p>Each invocation schedules a probe with a fixed delay of {@link #DELAY} milliseconds and waits for it
+ * to run on the worker pool. The sampled time therefore consists of that delay plus the jitter introduced
+ * by the timer layer, with the latter best read from the upper percentiles of the distribution.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TimerJitterBenchmark {
+
+    private static final long DELAY = 1;
+    private static final long INTERVAL = TimeUnit.SECONDS.toMillis(1);
+
+    @Param({ "1000", "50000", "200000" })
+    public int tasks;
+
+    @Param({ "1", "4" })
+    public int shards;
+
+    private BenchmarkScheduler scheduler;
+
+    @Setup
+    public void setup() {
+        this.scheduler = new BenchmarkScheduler(this.shards);
+
+        SplittableRandom random = new SplittableRandom(42);
+        for(int i = 0; i < this.tasks; i++) {
+            this.scheduler.asyncDelayedAndRepeating(() -> {}, random.nextLong(INTERVAL), INTERVAL, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @TearDown
+    public void teardown() {
+        this.scheduler.shutdownScheduler();
+        this.scheduler.shutdownExecutor();
+    }
+
+    @Benchmark
+    public Void fire() {
+        CompletableFuture<Void> fired = new CompletableFuture<>();
+        this.scheduler.asyncLater(() -> fired.complete(null), DELAY, TimeUnit.MILLISECONDS);
+        return fired.join();
+    }
+
+    private static final class BenchmarkScheduler extends AbstractJavaScheduler {
+
+        private BenchmarkScheduler(int shards) {
+            super(new NoOpLogger(), shards);
+        }
+
+        @Override
+        public Executor sync() {
+            return Runnable::run;
+        }
+
+    }
+
+}
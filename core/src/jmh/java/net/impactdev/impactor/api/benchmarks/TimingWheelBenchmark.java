@@ -0,0 +1,119 @@
+/*
+ * This file is part of Impactor, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2018-2022 NickImpact
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package net.impactdev.impactor.api.benchmarks;
+
+import net.impactdev.impactor.api.logging.NoOpLogger;
+import net.impactdev.impactor.api.scheduler.SchedulerTask;
+import net.impactdev.impactor.api.scheduler.v2.wheel.TimingWheelScheduler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the cost of scheduling and cancelling a delayed task against a {@link TimingWheelScheduler} with
+ * that of the single threaded {@link ScheduledThreadPoolExecutor} historically backing every timer, while
+ * the given number of long lived tasks remain pending.
+ *
+ * <p>The wheel is driven from the benchmark thread, advancing a tick every {@link #TICK_EVERY} operations,
+ * such that the cost of placing and unlinking tasks otherwise paid by its ticker thread is included.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TimingWheelBenchmark {
+
+    private static final int TICK_EVERY = 4096;
+    private static final Runnable NOOP = () -> {};
+
+    @Param({ "10000", "100000", "500000" })
+    public int live;
+
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    private TimingWheelScheduler wheel;
+    private ScheduledThreadPoolExecutor executor;
+    private int operations;
+
+    @Setup
+    public void setup() {
+        this.wheel = TimingWheelScheduler.driven(TimingWheelScheduler.KEY, Runnable::run, new NoOpLogger(), 512);
+        this.executor = new ScheduledThreadPoolExecutor(1);
+        this.executor.setRemoveOnCancelPolicy(true);
+
+        for(int i = 0; i < this.live; i++) {
+            long delay = this.delay();
+            this.wheel.delayed(NOOP, delay, TimeUnit.MILLISECONDS);
+            this.executor.schedule(NOOP, delay, TimeUnit.MILLISECONDS);
+        }
+
+        this.wheel.tick();
+    }
+
+    @TearDown
+    public void teardown() {
+        this.wheel.shutdown();
+        this.executor.shutdownNow();
+    }
+
+    @Benchmark
+    public void wheel() {
+        SchedulerTask task = this.wheel.delayed(NOOP, this.delay(), TimeUnit.MILLISECONDS);
+        task.cancel();
+        if(++this.operations % TICK_EVERY == 0) {
+            this.wheel.tick();
+        }
+    }
+
+    @Benchmark
+    public boolean executor() {
+        ScheduledFuture<?> future = this.executor.schedule(NOOP, this.delay(), TimeUnit.MILLISECONDS);
+        return future.cancel(false);
+    }
+
+    /**
+     * Provides a delay of one to seven days, such that no live task expires while measuring.
+     */
+    private long delay() {
+        return this.random.nextLong(TimeUnit.DAYS.toMillis(1), TimeUnit.DAYS.toMillis(7));
+    }
+
+}
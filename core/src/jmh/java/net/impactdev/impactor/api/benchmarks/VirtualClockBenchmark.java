@@ -0,0 +1,82 @@
+/*
+ * This file is part of Impactor, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2018-2022 NickImpact
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package net.impactdev.impactor.api.benchmarks;
+
+import net.impactdev.impactor.api.logging.NoOpLogger;
+import net.impactdev.impactor.api.scheduler.v2.simulation.VirtualClockScheduler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time taken by a {@link VirtualClockScheduler} to simulate a full day of server ticks, with the
+ * given number of tasks repeating at each of one minute, one second, and 100 millisecond intervals, on the
+ * thread advancing the clock.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class VirtualClockBenchmark {
+
+    private static final long DAY = TimeUnit.DAYS.toMillis(1) / 50;
+
+    @Param({ "1", "10" })
+    public int tasks;
+
+    private VirtualClockScheduler scheduler;
+
+    @Setup(Level.Invocation)
+    public void setup(Blackhole blackhole) {
+        this.scheduler = new VirtualClockScheduler(VirtualClockScheduler.KEY, new NoOpLogger());
+        for(int i = 0; i < this.tasks; i++) {
+            this.scheduler.repeating(() -> blackhole.consume(1), 1, TimeUnit.MINUTES);
+            this.scheduler.repeating(() -> blackhole.consume(2), 1, TimeUnit.SECONDS);
+            this.scheduler.repeating(() -> blackhole.consume(3), 100, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Benchmark
+    public long day() {
+        this.scheduler.advance(DAY);
+        return this.scheduler.tick();
+    }
+
+}
@@ -0,0 +1,130 @@
+/*
+ * This file is part of Impactor, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2018-2022 NickImpact
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package net.impactdev.impactor.api.events;
+
+import net.kyori.event.EventSubscriber;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * A subscriber which receives events in batches rather than individually. This is intended for subscribers
+ * performing I/O per event, such as persisting an audit log of economy transactions, where handling many events
+ * within a single write is considerably cheaper than handling each on its own.
+ *
+ * <p>Events are buffered as they are posted, and handed to the subscriber on the scheduler it was registered
+ * with whenever {@link #size()} events have been buffered. Independently of this, whatever remains buffered is
+ * handed over at a fixed rate of once per {@link #interval()}, regardless of when the previous batch was
+ * handed over.</p>
+ *
+ * <p>The buffer holds at most {@link #capacity()} events. Should events be posted faster than the subscriber
+ * is able to handle them, the {@link #overflow() overflow policy} decides which events are discarded, and
+ * the number discarded is reported with the next batch.</p>
+ *
+ * @param <E> The type of event handled by this subscriber
+ * @see ImpactorEventBus#subscribe(Class, BatchSubscriber, net.impactdev.impactor.api.scheduler.v2.Scheduler)
+ * @since 5.2.0
+ */
+@FunctionalInterface
+public interface BatchSubscriber<E> {
+
+    /**
+     * Invoked with a batch of posted events, in the order they were posted.
+     *
+     * @param events The batch of events
+     * @throws Throwable If an exception occurs while handling the batch
+     */
+    void on(List<E> events) throws Throwable;
+
+    /**
+     * Specifies the maximum number of events handed to the subscriber within a single batch. Reaching this
+     * number of buffered events triggers a batch immediately.
+     *
+     * @return The maximum size of a batch
+     */
+    default int size() {
+        return 500;
+    }
+
+    /**
+     * Specifies the fixed rate at which buffered events are handed over, regardless of whether a batch was
+     * triggered by size in the meantime. As such, this roughly bounds the time an event may remain buffered.
+     * The interval must be at least a millisecond.
+     *
+     * @return The rate at which buffered events are handed over
+     */
+    default Duration interval() {
+        return Duration.ofSeconds(1);
+    }
+
+    /**
+     * Specifies the maximum number of events which may be buffered at once, which must be at least
+     * {@link #size()}. Events posted beyond this capacity are handled per the {@link #overflow() overflow
+     * policy}.
+     *
+     * @return The maximum number of buffered events
+     */
+    default int capacity() {
+        return this.size() * 10;
+    }
+
+    /**
+     * Specifies which events are discarded once the buffer has reached its {@link #capacity()}.
+     *
+     * @return The overflow policy of this subscriber
+     */
+    default Overflow overflow() {
+        return Overflow.DISCARD_NEWEST;
+    }
+
+    /**
+     * Specifies whether cancelled events should be buffered for this subscriber.
+     *
+     * @return <code>true</code> if cancelled events should be included within batches
+     * @see EventSubscriber#acceptsCancelled()
+     */
+    default boolean acceptsCancelled() {
+        return true;
+    }
+
+    /**
+     * Represents the events discarded when an event is posted to a full buffer.
+     */
+    enum Overflow {
+
+        /**
+         * The posted event is discarded, preserving the events already buffered.
+         */
+        DISCARD_NEWEST,
+
+        /**
+         * The oldest buffered event is discarded to make room for the posted event.
+         */
+        DISCARD_OLDEST,
+
+    }
+
+}
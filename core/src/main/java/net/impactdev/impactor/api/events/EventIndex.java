@@ -0,0 +1,201 @@
+/*
+ * This file is part of Impactor, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2018-2022 NickImpact
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package net.impactdev.impactor.api.events;
+
+import com.google.common.base.Preconditions;
+import net.kyori.event.Cancellable;
+import net.kyori.event.EventSubscriber;
+import net.kyori.event.EventSubscription;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Routes events of a given type to subscribers interested only in events matching a particular key, such as the
+ * UUID of the account involved in an economy transaction. Indexes are created via
+ * {@link ImpactorEventBus#index(Class, Function)}.
+ *
+ * <p>Rather than every subscriber being invoked for each event and filtering out those it is uninterested in,
+ * an index registers a single subscriber with the bus, which extracts the key of each posted event and invokes
+ * only the subscribers registered against that key. For per-player events, this turns a fan-out across every
+ * online player into a single hash lookup.</p>
+ *
+ * <p>Keyed subscribers are invoked by a single subscriber registered with the bus at the post order of the index,
+ * rather than at their own {@link EventSubscriber#postOrder() post order}. Relative to the subscribers of the bus
+ * itself, every keyed subscriber therefore runs at the order of the index. Amongst the subscribers of a single key,
+ * their own post orders are honoured, with ties invoked in the order they subscribed. Subscribers which must run
+ * at a particular order relative to the rest of the bus should be given an index created at that order.</p>
+ *
+ * <p>An index should be created once per event type and key, and shared between all interested subscribers.
+ * Keys with no remaining subscribers are released, such that an index does not retain keys for players who have
+ * since disconnected.</p>
+ *
+ * @param <T> The type of event routed by this index
+ * @param <K> The type of key events are routed by
+ * @since 5.2.0
+ */
+public final class EventIndex<T extends ImpactorEvent, K> {
+
+    private final Class<T> type;
+    private final Function<? super T, ? extends K> extractor;
+    private final Map<K, List<EventSubscriber<? super T>>> subscribers = new ConcurrentHashMap<>();
+    private final EventSubscription subscription;
+
+    EventIndex(ImpactorEventBus bus, Class<T> type, Function<? super T, ? extends K> extractor, int order) {
+        this.type = type;
+        this.extractor = extractor;
+        this.subscription = bus.subscribe(type, new Router(order));
+    }
+
+    public Class<T> type() {
+        return this.type;
+    }
+
+    /**
+     * Extracts the key the given event is routed by.
+     *
+     * @param event The event to extract a key from
+     * @return The key of the event, or null if the event is not routed to any keyed subscriber
+     */
+    public @Nullable K key(final @NotNull T event) {
+        return this.extractor.apply(event);
+    }
+
+    /**
+     * Indicates the number of keys which currently have at least one subscriber.
+     *
+     * @return The number of subscribed keys
+     */
+    public int keys() {
+        return this.subscribers.size();
+    }
+
+    /**
+     * Subscribes to events of this index's type whose key matches the given key. The subscriber is invoked
+     * at its post order relative to the other subscribers of the key only, as detailed by this class.
+     *
+     * @param key The key of events the subscriber is interested in
+     * @param subscriber The subscriber
+     * @return A subscription which can be used to unsubscribe the subscriber
+     */
+    public EventSubscription subscribe(final @NotNull K key, final @NotNull EventSubscriber<? super T> subscriber) {
+        Preconditions.checkNotNull(key, "key");
+        Preconditions.checkNotNull(subscriber, "subscriber");
+        this.subscribers.compute(key, (k, existing) -> {
+            List<EventSubscriber<? super T>> result = existing == null ? new ArrayList<>(1) : new ArrayList<>(existing);
+            int position = result.size();
+            while(position > 0 && result.get(position - 1).postOrder() > subscriber.postOrder()) {
+                position--;
+            }
+
+            result.add(position, subscriber);
+            return List.copyOf(result);
+        });
+
+        return () -> this.subscribers.computeIfPresent(key, (k, existing) -> {
+            List<EventSubscriber<? super T>> result = new ArrayList<>(existing);
+            result.remove(subscriber);
+            return result.isEmpty() ? null : List.copyOf(result);
+        });
+    }
+
+    /**
+     * Unsubscribes this index from the bus, along with every subscriber registered against it.
+     */
+    public void close() {
+        this.subscription.unsubscribe();
+        this.subscribers.clear();
+    }
+
+    private final class Router implements EventSubscriber<T> {
+
+        private final int order;
+
+        private Router(int order) {
+            this.order = order;
+        }
+
+        @Override
+        public void on(@NonNull T event) throws Throwable {
+            K key = EventIndex.this.extractor.apply(event);
+            if(key == null) {
+                return;
+            }
+
+            List<EventSubscriber<? super T>> targets = EventIndex.this.subscribers.get(key);
+            if(targets == null) {
+                return;
+            }
+
+            boolean cancellable = event instanceof Cancellable;
+            boolean halting = event instanceof ShortCircuitingEvent;
+            Throwable failure = null;
+            for(EventSubscriber<? super T> target : targets) {
+                if(cancellable && ((Cancellable) event).cancelled()) {
+                    if(halting) {
+                        break;
+                    }
+
+                    if(!target.acceptsCancelled()) {
+                        continue;
+                    }
+                }
+
+                try {
+                    target.on(event);
+                } catch (Throwable e) {
+                    if(failure == null) {
+                        failure = e;
+                    } else {
+                        failure.addSuppressed(e);
+                    }
+                }
+            }
+
+            if(failure != null) {
+                throw failure;
+            }
+        }
+
+        @Override
+        public int postOrder() {
+            return this.order;
+        }
+
+        @Override
+        public String toString() {
+            return "EventIndex[" + EventIndex.this.type.getName() + "]";
+        }
+
+    }
+
+}
@@ -0,0 +1,253 @@
+/*
+ * This file is part of Impactor, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2018-2022 NickImpact
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package net.impactdev.impactor.api.events;
+
+import com.google.common.base.Preconditions;
+import net.impactdev.impactor.api.logging.PluginLogger;
+import net.impactdev.impactor.api.platform.plugins.PluginMetadata;
+import net.impactdev.impactor.api.scheduler.SchedulerTask;
+import net.impactdev.impactor.api.scheduler.v2.Scheduler;
+import net.impactdev.impactor.api.utility.printing.PrettyPrinter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Gathers timing and exception statistics for the subscribers of an {@link ImpactorEventBus}, accessible
+ * via {@link ImpactorEventBus#profiler()}. Profiling is disabled by default, and must be explicitly
+ * {@link #enable(int) enabled}.
+ *
+ * <p>To keep the overhead of profiling low enough to leave enabled on a live server, only a random sample of
+ * posts are timed, where a sampling rate of <code>n</code> times roughly one in every <code>n</code> posts.
+ * Exceptions raised by subscribers are counted for every post while profiling is enabled.</p>
+ *
+ * <p>Subscribers registered with an owning plugin, such as via
+ * {@link ImpactorEventBus#subscribe(PluginMetadata, Class, net.kyori.event.EventSubscriber)}, are attributed to
+ * that plugin within their statistics.</p>
+ *
+ * @since 5.2.0
+ */
+public final class EventProfiler {
+
+    private final PluginLogger logger;
+    private final Supplier<List<Probe>> probes;
+    private final Map<Class<?>, Counters> events = new ConcurrentHashMap<>();
+
+    private volatile int sampling;
+
+    EventProfiler(PluginLogger logger, Supplier<List<Probe>> probes) {
+        this.logger = logger;
+        this.probes = probes;
+    }
+
+    /**
+     * Enables profiling, timing roughly one in every <code>sampling</code> posts.
+     *
+     * @param sampling The sampling rate, where 1 times every post
+     */
+    public void enable(final int sampling) {
+        Preconditions.checkArgument(sampling > 0, "Sampling rate must be positive");
+        this.sampling = sampling;
+    }
+
+    /**
+     * Disables profiling. Statistics gathered so far are retained until {@link #reset() reset}.
+     */
+    public void disable() {
+        this.sampling = 0;
+    }
+
+    public boolean enabled() {
+        return this.sampling > 0;
+    }
+
+    /**
+     * Provides a snapshot of the statistics of every active subscriber, sorted by the cumulative time
+     * spent within each subscriber in descending order.
+     *
+     * @return A list of statistics for every active subscriber
+     */
+    public List<SubscriberStatistics> subscribers() {
+        return this.probes.get().stream()
+                .map(Probe::snapshot)
+                .sorted(Comparator.comparing(SubscriberStatistics::total).reversed())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Provides a snapshot of the statistics of every active subscriber registered by the given plugin.
+     *
+     * @param owner The plugin to filter on
+     * @return A list of statistics for the subscribers registered by the given plugin
+     */
+    public List<SubscriberStatistics> subscribers(final @NotNull PluginMetadata owner) {
+        return this.subscribers().stream()
+                .filter(statistics -> statistics.owner() != null && statistics.owner().id().equals(owner.id()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Provides a snapshot of the statistics of every event type posted while profiling was enabled, sorted
+     * by the cumulative time spent dispatching each event type in descending order.
+     *
+     * @return A list of statistics for every profiled event type
+     */
+    public List<EventStatistics> events() {
+        return this.events.entrySet().stream()
+                .map(entry -> {
+                    Counters counters = entry.getValue();
+                    return new EventStatistics(
+                            entry.getKey(),
+                            counters.samples.sum(),
+                            Duration.ofNanos(counters.nanos.sum()),
+                            Duration.ofNanos(counters.max.get()),
+                            counters.exceptions.sum()
+                    );
+                })
+                .sorted(Comparator.comparing(EventStatistics::total).reversed())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Clears all statistics gathered by this profiler.
+     */
+    public void reset() {
+        this.events.clear();
+        for(Probe probe : this.probes.get()) {
+            probe.counters().reset();
+        }
+    }
+
+    /**
+     * Schedules a periodic report of slow subscribers. Each report lists every subscriber which, since the
+     * previous report, took longer than the given threshold to handle a sampled event. No report is written
+     * for a period in which no subscriber exceeded the threshold.
+     *
+     * @param scheduler The scheduler to generate reports on
+     * @param interval The interval between reports
+     * @param threshold The invocation time above which a subscriber is considered slow
+     * @return A task which can be used to stop reporting
+     */
+    public SchedulerTask report(final @NotNull Scheduler scheduler, final @NotNull Duration interval, final @NotNull Duration threshold) {
+        long limit = threshold.toNanos();
+        return scheduler.repeating(() -> this.report(limit), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void report(long threshold) {
+        List<Probe> slow = this.probes.get().stream()
+                .filter(probe -> probe.counters().window.getThenReset() > threshold)
+                .toList();
+        if(slow.isEmpty()) {
+            return;
+        }
+
+        PrettyPrinter printer = new PrettyPrinter(80);
+        printer.title("Slow Event Subscribers");
+        printer.kv("Threshold", SubscriberStatistics.format(Duration.ofNanos(threshold)));
+        printer.kv("Sampling", "1 in " + Math.max(1, this.sampling));
+        slow.stream()
+                .map(Probe::snapshot)
+                .sorted(Comparator.comparing(SubscriberStatistics::max).reversed())
+                .forEach(statistics -> {
+                    printer.hr('-');
+                    printer.add(statistics);
+                });
+
+        printer.log(this.logger, PrettyPrinter.Level.WARNING);
+    }
+
+    boolean sample() {
+        int sampling = this.sampling;
+        return sampling == 1 || sampling > 1 && ThreadLocalRandom.current().nextInt(sampling) == 0;
+    }
+
+    Counters event(Class<?> type) {
+        return this.events.computeIfAbsent(type, key -> new Counters());
+    }
+
+    /**
+     * Mutable statistics maintained for either a single subscriber or event type.
+     */
+    static final class Counters {
+
+        private final LongAdder samples = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+        private final LongAccumulator window = new LongAccumulator(Math::max, 0);
+        private final LongAdder exceptions = new LongAdder();
+
+        void record(long duration) {
+            this.samples.increment();
+            this.nanos.add(duration);
+            this.max.accumulate(duration);
+            this.window.accumulate(duration);
+        }
+
+        void failure() {
+            this.exceptions.increment();
+        }
+
+        private void reset() {
+            this.samples.reset();
+            this.nanos.reset();
+            this.max.reset();
+            this.window.reset();
+            this.exceptions.reset();
+        }
+
+    }
+
+    /**
+     * Associates the counters of a single subscriber with the information describing it.
+     */
+    record Probe(@Nullable PluginMetadata owner, String subscriber, Class<?> event, Counters counters) {
+
+        private SubscriberStatistics snapshot() {
+            return new SubscriberStatistics(
+                    this.owner,
+                    this.subscriber,
+                    this.event,
+                    this.counters.samples.sum(),
+                    Duration.ofNanos(this.counters.nanos.sum()),
+                    Duration.ofNanos(this.counters.max.get()),
+                    this.counters.exceptions.sum()
+            );
+        }
+
+    }
+
+}
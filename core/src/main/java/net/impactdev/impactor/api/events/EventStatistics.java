@@ -0,0 +1,69 @@
+/*
+ * This file is part of Impactor, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2018-2022 NickImpact
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package net.impactdev.impactor.api.events;
+
+import net.impactdev.impactor.api.utility.printing.PrettyPrinter;
+
+import java.time.Duration;
+
+/**
+ * Represents a snapshot of the statistics gathered for a single event type by an {@link EventProfiler}, covering
+ * the dispatch of a sampled post to every subscriber of the event.
+ *
+ * @param event The type of event posted
+ * @param samples The number of sampled posts of the event
+ * @param total The cumulative time spent dispatching all sampled posts
+ * @param max The longest recorded dispatch
+ * @param exceptions The number of exceptions raised by subscribers of the event while profiling was enabled
+ * @since 5.2.0
+ */
+public record EventStatistics(
+        Class<?> event,
+        long samples,
+        Duration total,
+        Duration max,
+        long exceptions
+) implements PrettyPrinter.IPrettyPrintable {
+
+    /**
+     * Represents the average time spent dispatching a sampled post of the event.
+     *
+     * @return The average dispatch time
+     */
+    public Duration average() {
+        return this.samples == 0 ? Duration.ZERO : this.total.dividedBy(this.samples);
+    }
+
+    @Override
+    public void print(PrettyPrinter printer) {
+        printer.kv("Event", this.event.getName());
+        printer.kv("Samples", this.samples);
+        printer.kv("Dispatch (avg)", SubscriberStatistics.format(this.average()));
+        printer.kv("Dispatch (max)", SubscriberStatistics.format(this.max));
+        printer.kv("Exceptions", this.exceptions);
+    }
+
+}
@@ -0,0 +1,317 @@
+/*
+ * This file is part of Impactor, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2018-2022 NickImpact
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package net.impactdev.impactor.api.events;
+
+import com.google.common.base.Preconditions;
+import net.impactdev.impactor.api.logging.PluginLogger;
+import net.impactdev.impactor.api.scheduler.SchedulerTask;
+import net.impactdev.impactor.api.scheduler.v2.Scheduler;
+import net.impactdev.impactor.api.utility.printing.PrettyPrinter;
+import net.kyori.event.EventSubscriber;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Reports exceptions raised by the subscribers of an {@link ImpactorEventBus}, accessible via
+ * {@link ImpactorEventBus#exceptions()}.
+ *
+ * <p>Exceptions are aggregated by their signature, being the subscriber which raised them, the type of event
+ * posted, the type of exception, and the location it was thrown from. Subscribers are identified by their
+ * class, or by their listener method where registered via {@link ImpactorEventBus#register(Object)}, such that
+ * every subscriber created by the same code shares a signature. The first occurrence of a signature is
+ * reported in full, alongside its stack trace. Further occurrences are only counted, and summarized in a single
+ * line at most once per reporting window, such that a subscriber failing on every post does not flood the console.
+ * A summary is written upon the first occurrence after a window elapses, once the window is found to have elapsed
+ * by a reporter {@link #watch(Scheduler) watching} it, or when explicitly {@link #flush() flushed}.</p>
+ *
+ * <p>Occurrences are counted for {@link #statistics()} regardless of the reporting window. A signature which has
+ * not occurred for {@link #EXPIRY ten minutes}, or for the reporting window where longer, is evicted alongside
+ * its counts, after summarizing any occurrences still pending. Evictions are performed as new exceptions are
+ * reported, and by a reporter {@link #watch(Scheduler) watching} for elapsed windows.</p>
+ *
+ * @since 5.2.0
+ */
+public final class ExceptionReporter {
+
+    /**
+     * The minimum time a signature must go without occurring before it is evicted.
+     */
+    public static final Duration EXPIRY = Duration.ofMinutes(10);
+
+    private static final long SWEEP = TimeUnit.MINUTES.toNanos(1);
+    private static final ClassValue<Boolean> DESCRIBED = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            try {
+                return type.getMethod("toString").getDeclaringClass() != Object.class;
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+    };
+
+    private final PluginLogger logger;
+    private final Map<Signature, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong evicted = new AtomicLong(System.nanoTime());
+
+    private volatile long window = Duration.ofMinutes(1).toNanos();
+
+    ExceptionReporter(PluginLogger logger) {
+        this.logger = logger;
+    }
+
+    /**
+     * Updates the length of the reporting window. A window of zero disables summarization, reporting every
+     * exception in full, though occurrences are still counted for {@link #statistics()}.
+     *
+     * @param window The length of the reporting window
+     */
+    public void window(final @NotNull Duration window) {
+        Preconditions.checkArgument(!window.isNegative(), "Window must not be negative");
+        this.window = window.toNanos();
+    }
+
+    /**
+     * Provides the aggregated counts of every exception signature encountered, sorted by their total number
+     * of occurrences in descending order.
+     *
+     * @return A list of statistics for every encountered exception signature
+     */
+    public List<ExceptionStatistics> statistics() {
+        return this.entries.entrySet().stream()
+                .map(entry -> entry.getValue().snapshot(entry.getKey()))
+                .sorted(Comparator.comparingLong(ExceptionStatistics::occurrences).reversed())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Schedules a check once per second on the given scheduler, summarizing every signature whose reporting
+     * window has elapsed with occurrences still pending. Without this, pending occurrences are only summarized
+     * upon the next occurrence of their signature, or when explicitly {@link #flush() flushed}.
+     *
+     * @param scheduler The scheduler to perform checks on
+     * @return A task which can be used to stop checking
+     */
+    public SchedulerTask watch(final @NotNull Scheduler scheduler) {
+        return scheduler.repeating(this::expire, 1, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Summarizes every signature with occurrences pending within its current window, regardless of whether
+     * the window has elapsed.
+     */
+    public void flush() {
+        this.entries.forEach((signature, entry) -> this.summarize(signature, entry, System.nanoTime()));
+    }
+
+    /**
+     * Clears all aggregated counts. The next occurrence of any signature will be reported in full.
+     */
+    public void reset() {
+        this.entries.clear();
+    }
+
+    void report(ImpactorEvent event, Map<EventSubscriber<?>, Throwable> failures) {
+        long now = System.nanoTime();
+        List<Map.Entry<EventSubscriber<?>, Throwable>> novel = new ArrayList<>(failures.size());
+        for(Map.Entry<EventSubscriber<?>, Throwable> failure : failures.entrySet()) {
+            Signature signature = Signature.of(failure.getKey(), event.getClass(), failure.getValue());
+            Entry entry = this.entries.computeIfAbsent(signature, key -> new Entry(now));
+            entry.occurrences.increment();
+            entry.last = now;
+            if(this.window == 0 || entry.reported.compareAndSet(0, now)) {
+                novel.add(failure);
+            } else {
+                entry.pending.increment();
+                if(now - entry.reported.get() >= this.window) {
+                    this.summarize(signature, entry, now);
+                }
+            }
+        }
+
+        this.evict(now);
+        if(novel.isEmpty()) {
+            return;
+        }
+
+        PrettyPrinter printer = new PrettyPrinter(80);
+        printer.title("Event Invocation Results");
+        printer.add("Event: " + event.getClass().getSimpleName());
+        printer.add("Exceptions Encountered: " + novel.size());
+        printer.newline().add("Encountered exception traces will now be printed below...");
+        if(this.window > 0) {
+            printer.add("Further occurrences will be summarized every %s.", format(Duration.ofNanos(this.window)));
+        }
+        printer.hr('-');
+
+        int id = 1;
+        for(Map.Entry<EventSubscriber<?>, Throwable> failure : novel) {
+            printer.add("%d: %s", id++, failure.getKey());
+            printer.add(failure.getValue(), 2);
+        }
+
+        printer.log(this.logger, PrettyPrinter.Level.ERROR);
+    }
+
+    private void expire() {
+        long now = System.nanoTime();
+        long window = this.window;
+        this.entries.forEach((signature, entry) -> {
+            long reported = entry.reported.get();
+            if(reported != 0 && now - reported >= window) {
+                this.summarize(signature, entry, now);
+            }
+        });
+
+        this.evict(now);
+    }
+
+    private void evict(long now) {
+        long expiry = Math.max(EXPIRY.toNanos(), this.window);
+        long last = this.evicted.get();
+        if(now - last < SWEEP || !this.evicted.compareAndSet(last, now)) {
+            return;
+        }
+
+        this.entries.forEach((signature, entry) -> {
+            if(now - entry.last >= expiry) {
+                this.summarize(signature, entry, now);
+                this.entries.remove(signature, entry);
+            }
+        });
+    }
+
+    private void summarize(Signature signature, Entry entry, long now) {
+        long last = entry.reported.get();
+        if(!entry.reported.compareAndSet(last, now)) {
+            return;
+        }
+
+        long pending = entry.pending.sumThenReset();
+        if(pending == 0) {
+            return;
+        }
+
+        this.logger.severe(String.format(
+                "%s threw %s at %s %d more time(s) in the last %s while handling %s (%d total)",
+                signature.subscriber(),
+                signature.exception(),
+                signature.origin(),
+                pending,
+                format(Duration.ofNanos(now - last)),
+                signature.event().getSimpleName(),
+                entry.occurrences.sum()
+        ));
+    }
+
+    private static String format(Duration duration) {
+        if(duration.compareTo(Duration.ofSeconds(1)) < 0) {
+            return duration.toMillis() + "ms";
+        }
+
+        StringJoiner joiner = new StringJoiner(" ");
+        if(duration.toHours() > 0) {
+            joiner.add(duration.toHours() + "h");
+        }
+        if(duration.toMinutesPart() > 0) {
+            joiner.add(duration.toMinutesPart() + "m");
+        }
+        if(duration.toSecondsPart() > 0) {
+            joiner.add(duration.toSecondsPart() + "s");
+        }
+
+        return joiner.toString();
+    }
+
+    private record Signature(String subscriber, Class<?> event, String exception, String origin) {
+
+        private static Signature of(EventSubscriber<?> subscriber, Class<?> event, Throwable throwable) {
+            StackTraceElement[] trace = throwable.getStackTrace();
+            return new Signature(
+                    DESCRIBED.get(subscriber.getClass()) ? subscriber.toString() : subscriber.getClass().getName(),
+                    event,
+                    throwable.getClass().getName(),
+                    trace.length > 0 ? trace[0].toString() : "Unknown"
+            );
+        }
+
+    }
+
+    private static final class Entry {
+
+        private final long first;
+        private final LongAdder occurrences = new LongAdder();
+        private final LongAdder pending = new LongAdder();
+        private final AtomicLong reported = new AtomicLong();
+        private volatile long last;
+
+        private Entry(long first) {
+            this.first = first;
+            this.last = first;
+        }
+
+        private ExceptionStatistics snapshot(Signature signature) {
+            long now = System.nanoTime();
+            Instant current = Instant.now();
+            return new ExceptionStatistics(
+                    signature.subscriber(),
+                    signature.event(),
+                    signature.exception(),
+                    signature.origin(),
+                    this.occurrences.sum(),
+                    current.minusNanos(now - this.first),
+                    current.minusNanos(now - this.last)
+            );
+        }
+
+    }
+
+    /**
+     * Represents the aggregated occurrences of a single exception signature.
+     *
+     * @param subscriber The class or listener method of the subscriber which raised the exception
+     * @param event The type of event being handled when the exception was raised
+     * @param exception The type of exception raised
+     * @param origin The location the exception was thrown from
+     * @param occurrences The total number of occurrences of this signature
+     * @param first The approximate time of the first occurrence
+     * @param last The approximate time of the most recent occurrence
+     */
+    public record ExceptionStatistics(String subscriber, Class<?> event, String exception, String origin, long occurrences, Instant first, Instant last) {}
+
+}
@@ -29,6 +29,7 @@ package net.impactdev.impactor.api.events;
  * Represents an event applicable to being pushed onto the Impactor
  * {@link net.kyori.event.EventBus event bus}. Events of this nature are not cancellable
  * by default, and are intended to inherit in some form from {@link net.kyori.event.Cancellable}
- * in order to achieve this status.
+ * in order to achieve this status. Events where cancellation should additionally halt dispatch
+ * should instead inherit from {@link ShortCircuitingEvent}.
  */
 public interface ImpactorEvent {}
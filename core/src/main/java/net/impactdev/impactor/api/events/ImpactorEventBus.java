@@ -25,29 +25,94 @@
 
 package net.impactdev.impactor.api.events;
 
+import com.google.common.base.Preconditions;
 import net.impactdev.impactor.api.logging.Log4jLogger;
-import net.impactdev.impactor.api.utility.printing.PrettyPrinter;
+import net.impactdev.impactor.api.platform.plugins.PluginMetadata;
+import net.impactdev.impactor.api.scheduler.SchedulerTask;
+import net.impactdev.impactor.api.scheduler.v2.Scheduler;
+import net.kyori.event.Cancellable;
 import net.kyori.event.EventBus;
 import net.kyori.event.EventSubscriber;
 import net.kyori.event.EventSubscription;
+import net.kyori.event.PostOrders;
 import net.kyori.event.PostResult;
 import org.apache.logging.log4j.LogManager;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 import java.util.function.Predicate;
-import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
+/**
+ * The event bus responsible for all events posted by Impactor and its modules.
+ *
+ * <p>Rather than resolving the subscribers of an event on each post, this bus compiles a flattened dispatch
+ * table for each concrete event class on its first post. A table holds every subscriber listening to the class
+ * itself or any of its supertypes and interfaces, already sorted by {@link EventSubscriber#postOrder() post order},
+ * such that posting an event amounts to a single iteration over an array. Dispatch of a
+ * {@link ShortCircuitingEvent} halts as soon as a subscriber cancels it.</p>
+ *
+ * <p>Registrations are held within a bucket per subscribed event type, each of which holds a copy-on-write array
+ * of its registrations guarded by its own lock, such that writers only ever contend with writers of the same event
+ * type, and posting never blocks. A bucket exists for every type within the hierarchy of each compiled table, and
+ * each table records the version of every bucket it was compiled from. Modifying a bucket therefore only affects
+ * the tables of events able to reach its type, which are discarded immediately such that unsubscribed listeners
+ * are not retained, and lazily recompiled upon their next post. Subscribers are additionally indexed to their
+ * registrations, allowing {@link #unsubscribeIf(Predicate)} to only touch the buckets holding matching
+ * subscribers.</p>
+ */
 public final class ImpactorEventBus implements EventBus<ImpactorEvent> {
 
     private static final ImpactorEventBus INSTANCE = new ImpactorEventBus();
+    private static final Registration[] EMPTY = new Registration[0];
+    private static final Table INVALID = new Table(new Bucket[0], new long[0], EMPTY);
 
     public static ImpactorEventBus bus() {
         return INSTANCE;
     }
 
-    private final EventBus<ImpactorEvent> delegate =  EventBus.create(ImpactorEvent.class);
     private final Log4jLogger logger = new Log4jLogger(LogManager.getLogger("Impactor (Events)"));
+    private final EventProfiler profiler = new EventProfiler(this.logger, this::probes);
+    private final ExceptionReporter exceptions = new ExceptionReporter(this.logger);
+
+    private final Map<Class<?>, Bucket> buckets = new ConcurrentHashMap<>();
+    private final Map<EventSubscriber<?>, Set<Registration>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final ClassValue<Dispatcher> dispatchers = new ClassValue<>() {
+        @Override
+        protected Dispatcher computeValue(Class<?> type) {
+            return new Dispatcher(type);
+        }
+    };
 
     private ImpactorEventBus() {}
 
@@ -58,44 +123,678 @@ public final class ImpactorEventBus implements EventBus<ImpactorEvent> {
 
     @Override
     public @NonNull PostResult post(@NonNull ImpactorEvent event) {
-        Supplier<PrettyPrinter> raiser = () -> {
-            PrettyPrinter printer = new PrettyPrinter(80);
-            printer.title("Event Invocation Results");
-            printer.add("Event: " + event.getClass().getSimpleName());
-            return printer;
-        };
+        Registration[] table = this.table(event.getClass());
+        if(table.length == 0) {
+            return PostResult.success();
+        }
+
+        boolean profiling = this.profiler.enabled();
+        boolean sampled = profiling && this.profiler.sample();
+        long dispatched = sampled ? System.nanoTime() : 0;
 
-        PostResult result = this.delegate.post(event);
-        if(!result.wasSuccessful()) {
-            PrettyPrinter printer = raiser.get();
-            printer.add("Exceptions Encountered: " + result.exceptions().size());
-            printer.newline().add("Encountered exception traces will now be printed below...");
-            printer.hr('-');
+        boolean cancellable = event instanceof Cancellable;
+        boolean halting = event instanceof ShortCircuitingEvent;
+        Map<EventSubscriber<?>, Throwable> failures = null;
+        for(Registration registration : table) {
+            if(cancellable && ((Cancellable) event).cancelled()) {
+                if(halting) {
+                    break;
+                }
 
-            AtomicInteger id = new AtomicInteger(1);
-            result.exceptions().forEach((subscriber, throwable) -> {
-                printer.add("%d: %s", id.getAndIncrement(), subscriber);
-                printer.add(throwable, 2);
-            });
+                if(!registration.acceptsCancelled()) {
+                    continue;
+                }
+            }
 
-            printer.log(this.logger, PrettyPrinter.Level.ERROR);
+            long start = sampled ? System.nanoTime() : 0;
+            try {
+                registration.subscriber().on(event);
+            } catch (Throwable e) {
+                if(failures == null) {
+                    failures = new LinkedHashMap<>();
+                }
+
+                failures.put(registration.subscriber(), e);
+                if(profiling) {
+                    registration.probe().counters().failure();
+                    this.profiler.event(event.getClass()).failure();
+                }
+            }
+
+            if(sampled) {
+                registration.probe().counters().record(System.nanoTime() - start);
+            }
         }
 
-        return result;
+        if(sampled) {
+            this.profiler.event(event.getClass()).record(System.nanoTime() - dispatched);
+        }
+
+        if(failures == null) {
+            return PostResult.success();
+        }
+
+        this.exceptions.report(event, failures);
+        return PostResult.failure(failures);
+    }
+
+    /**
+     * Posts an event on the given scheduler, rather than on the calling thread. This is intended for events
+     * whose subscribers are expected to perform blocking work, where the caller should not wait on them.
+     *
+     * @param event The event to post
+     * @param scheduler The scheduler the event should be posted on
+     * @return A future completing with the result of the post once every subscriber has been invoked
+     * @since 5.2.0
+     */
+    public @NonNull CompletableFuture<PostResult> postAsync(final @NotNull ImpactorEvent event, final @NotNull Scheduler scheduler) {
+        Preconditions.checkNotNull(event, "event");
+        return scheduler.supply(() -> this.post(event));
     }
 
     @Override
     public boolean subscribed(@NonNull Class<? extends ImpactorEvent> type) {
-        return this.delegate.subscribed(type);
+        return this.table(type).length > 0;
     }
 
     @Override
     public @NonNull <T extends ImpactorEvent> EventSubscription subscribe(@NonNull Class<T> event, @NonNull EventSubscriber<? super T> subscriber) {
-        return this.delegate.subscribe(event, subscriber);
+        return this.subscribe(null, event, subscriber);
+    }
+
+    /**
+     * Subscribes to the given event type on behalf of the given plugin. Statistics gathered for the subscriber
+     * by the {@link #profiler() profiler} are attributed to the plugin.
+     *
+     * @param owner The plugin registering the subscriber
+     * @param event The type of event to subscribe to
+     * @param subscriber The subscriber
+     * @param <T> The type of event
+     * @return A subscription which can be used to unsubscribe the subscriber
+     * @since 5.2.0
+     */
+    @SuppressWarnings("unchecked")
+    public @NonNull <T extends ImpactorEvent> EventSubscription subscribe(final @Nullable PluginMetadata owner, final @NotNull Class<T> event, final @NotNull EventSubscriber<? super T> subscriber) {
+        EventProfiler.Probe probe = new EventProfiler.Probe(owner, String.valueOf(subscriber), event, new EventProfiler.Counters());
+        Registration registration = new Registration(
+                event,
+                (EventSubscriber<? super ImpactorEvent>) subscriber,
+                subscriber.postOrder(),
+                subscriber.acceptsCancelled(),
+                this.sequence.getAndIncrement(),
+                probe
+        );
+
+        this.subscribers.compute(subscriber, (key, registrations) -> {
+            Set<Registration> result = registrations == null ? ConcurrentHashMap.newKeySet() : registrations;
+            result.add(registration);
+            return result;
+        });
+        this.bucket(event).add(registration);
+
+        return () -> this.unsubscribe(registration);
+    }
+
+    /**
+     * Subscribes a batch subscriber to the given event type. Posted events are buffered as the last step of
+     * dispatch, and handed to the subscriber in batches on the given scheduler, both once a full batch has been
+     * buffered, and at the fixed rate specified by {@link BatchSubscriber#interval()}. Unsubscribing hands any
+     * events still buffered to the subscriber within a final batch.
+     *
+     * @param event The type of event to subscribe to
+     * @param subscriber The subscriber receiving batches of events
+     * @param scheduler The scheduler batches should be handed to the subscriber on
+     * @param <T> The type of event
+     * @return A subscription which can be used to unsubscribe the batch subscriber
+     * @throws IllegalArgumentException If the subscriber's interval is shorter than a millisecond
+     * @since 5.2.0
+     */
+    public @NonNull <T extends ImpactorEvent> EventSubscription subscribe(final @NotNull Class<T> event, final @NotNull BatchSubscriber<T> subscriber, final @NotNull Scheduler scheduler) {
+        Preconditions.checkArgument(subscriber.size() > 0, "Batch size must be positive");
+        Preconditions.checkArgument(subscriber.capacity() >= subscriber.size(), "Buffer capacity must be at least the batch size");
+        Preconditions.checkNotNull(subscriber.overflow(), "overflow");
+        long interval = Preconditions.checkNotNull(subscriber.interval(), "interval").toMillis();
+        Preconditions.checkArgument(interval >= 1, "Batch interval must be at least 1 millisecond");
+
+        Batcher<T> batcher = new Batcher<>(subscriber, scheduler);
+        SchedulerTask task = scheduler.repeating(batcher::flush, interval, TimeUnit.MILLISECONDS);
+        EventSubscription subscription;
+        try {
+            subscription = this.subscribe(event, batcher);
+        } catch (RuntimeException e) {
+            task.cancel();
+            throw e;
+        }
+
+        return () -> {
+            subscription.unsubscribe();
+            task.cancel();
+            scheduler.publish(batcher::flush);
+        };
+    }
+
+    /**
+     * Creates an index routing events of the given type to subscribers by the key extracted from each event.
+     * Keyed subscribers are invoked at the {@link PostOrders#NORMAL normal} post order, regardless of their own
+     * post order, which is only honoured relative to the other subscribers of the same key.
+     *
+     * @param type The type of event to index
+     * @param key A function extracting the key of an event, which may return null for events which should not
+     *            be routed to any keyed subscriber
+     * @param <T> The type of event
+     * @param <K> The type of key
+     * @return A new index over the given event type
+     * @see EventIndex
+     * @since 5.2.0
+     */
+    public @NonNull <T extends ImpactorEvent, K> EventIndex<T, K> index(final @NotNull Class<T> type, final @NotNull Function<? super T, ? extends K> key) {
+        return this.index(type, key, PostOrders.NORMAL);
+    }
+
+    /**
+     * Creates an index routing events of the given type to subscribers by the key extracted from each event,
+     * where keyed subscribers are invoked at the given post order, regardless of their own post order, which
+     * is only honoured relative to the other subscribers of the same key.
+     *
+     * @param type The type of event to index
+     * @param key A function extracting the key of an event, which may return null for events which should not
+     *            be routed to any keyed subscriber
+     * @param order The post order keyed subscribers of the index are invoked at
+     * @param <T> The type of event
+     * @param <K> The type of key
+     * @return A new index over the given event type
+     * @see EventIndex
+     * @since 5.2.0
+     */
+    public @NonNull <T extends ImpactorEvent, K> EventIndex<T, K> index(final @NotNull Class<T> type, final @NotNull Function<? super T, ? extends K> key, final int order) {
+        Preconditions.checkNotNull(type, "type");
+        Preconditions.checkNotNull(key, "key");
+        return new EventIndex<>(this, type, key, order);
+    }
+
+    /**
+     * Registers every method of the given listener annotated with {@link Listen} as a subscriber to the event
+     * type of its single parameter. Annotated methods declared by superclasses of the listener are included,
+     * though a method overridden by a subclass is only registered once, using the annotation of its most
+     * derived annotated declaration.
+     *
+     * <p>Where possible, an invoker is generated for each method via {@link LambdaMetafactory}, making the cost
+     * of invoking an annotated method equivalent to that of a hand-written subscriber. This requires full
+     * privilege access to the class declaring the method, which Impactor only holds for classes within its own
+     * module. For listeners of any other module, such as those loaded by another plugin's class loader, the
+     * method is instead invoked through a bound {@link MethodHandle}, which is noticeably slower. Should the
+     * listener's package additionally not be open to Impactor, registration fails altogether. In either case,
+     * use {@link #register(Object, MethodHandles.Lookup)} with a lookup created by the listener's class.</p>
+     *
+     * @param listener The listener object declaring annotated methods
+     * @return A subscription which can be used to unsubscribe every method of the listener
+     * @throws IllegalArgumentException If an annotated method is static, or does not accept a single event
+     * @since 5.2.0
+     */
+    public @NonNull EventSubscription register(final @NotNull Object listener) {
+        return this.register(null, listener, MethodHandles.lookup());
+    }
+
+    /**
+     * Registers every method of the given listener annotated with {@link Listen} on behalf of the given plugin.
+     *
+     * @param owner The plugin registering the listener
+     * @param listener The listener object declaring annotated methods
+     * @return A subscription which can be used to unsubscribe every method of the listener
+     * @throws IllegalArgumentException If an annotated method is static, or does not accept a single event
+     * @see #register(Object)
+     * @since 5.2.0
+     */
+    public @NonNull EventSubscription register(final @Nullable PluginMetadata owner, final @NotNull Object listener) {
+        return this.register(owner, listener, MethodHandles.lookup());
+    }
+
+    /**
+     * Registers every method of the given listener annotated with {@link Listen}, resolving each method
+     * through the given lookup.
+     *
+     * <p>This overload is needed whenever the listener's class resides outside of Impactor's module, which
+     * typically includes every listener declared by another plugin. Passing <code>MethodHandles.lookup()</code>
+     * from within the listener's class grants the full privilege access required to generate fast invokers,
+     * and access to listeners whose package is not open to Impactor. See {@link #register(Object)} for
+     * further details.</p>
+     *
+     * @param listener The listener object declaring annotated methods
+     * @param lookup A lookup with access to the methods of the listener
+     * @return A subscription which can be used to unsubscribe every method of the listener
+     * @throws IllegalArgumentException If an annotated method is static, or does not accept a single event
+     * @see #register(Object)
+     * @since 5.2.0
+     */
+    public @NonNull EventSubscription register(final @NotNull Object listener, final MethodHandles.@NotNull Lookup lookup) {
+        return this.register(null, listener, lookup);
+    }
+
+    /**
+     * Registers every method of the given listener annotated with {@link Listen} on behalf of the given plugin,
+     * resolving each method through the given lookup.
+     *
+     * @param owner The plugin registering the listener
+     * @param listener The listener object declaring annotated methods
+     * @param lookup A lookup with access to the methods of the listener
+     * @return A subscription which can be used to unsubscribe every method of the listener
+     * @throws IllegalArgumentException If an annotated method is static, or does not accept a single event
+     * @see #register(Object)
+     * @since 5.2.0
+     */
+    public @NonNull EventSubscription register(final @Nullable PluginMetadata owner, final @NotNull Object listener, final MethodHandles.@NotNull Lookup lookup) {
+        Preconditions.checkNotNull(listener, "listener");
+        List<EventSubscription> subscriptions = new ArrayList<>();
+        Set<List<Object>> registered = new HashSet<>();
+        for(Class<?> type = listener.getClass(); type != null && type != Object.class; type = type.getSuperclass()) {
+            for(Method method : type.getDeclaredMethods()) {
+                Listen listen = method.getAnnotation(Listen.class);
+                if(listen == null || method.isBridge() || method.isSynthetic()) {
+                    continue;
+                }
+
+                // Methods are visited from the most derived class upwards, so an overridden method is
+                // registered once, via its most derived annotated declaration. Private methods are never
+                // overridden, and are therefore distinguished by their declaring class.
+                List<Object> signature = List.of(
+                        Modifier.isPrivate(method.getModifiers()) ? type : Object.class,
+                        method.getName(),
+                        Arrays.asList(method.getParameterTypes())
+                );
+                if(!registered.add(signature)) {
+                    continue;
+                }
+
+                Preconditions.checkArgument(!Modifier.isStatic(method.getModifiers()), "Listener method %s must not be static", method);
+                Preconditions.checkArgument(
+                        method.getParameterCount() == 1 && ImpactorEvent.class.isAssignableFrom(method.getParameterTypes()[0]),
+                        "Listener method %s must accept a single event", method
+                );
+
+                @SuppressWarnings("unchecked")
+                Class<? extends ImpactorEvent> event = (Class<? extends ImpactorEvent>) method.getParameterTypes()[0];
+                subscriptions.add(this.subscribe(owner, event, new MethodSubscriber(listener, method, listen, lookup, this.logger)));
+            }
+        }
+
+        return () -> subscriptions.forEach(EventSubscription::unsubscribe);
     }
 
     @Override
     public void unsubscribeIf(@NonNull Predicate<EventSubscriber<? super ImpactorEvent>> predicate) {
-        this.delegate.unsubscribeIf(predicate);
+        for(Map.Entry<EventSubscriber<?>, Set<Registration>> entry : this.subscribers.entrySet()) {
+            @SuppressWarnings("unchecked")
+            EventSubscriber<? super ImpactorEvent> subscriber = (EventSubscriber<? super ImpactorEvent>) entry.getKey();
+            if(predicate.test(subscriber)) {
+                for(Registration registration : entry.getValue()) {
+                    this.unsubscribe(registration);
+                }
+            }
+        }
+    }
+
+    /**
+     * Provides the profiler responsible for gathering statistics on the subscribers of this bus.
+     *
+     * @return The profiler of this bus
+     * @since 5.2.0
+     */
+    public EventProfiler profiler() {
+        return this.profiler;
+    }
+
+    /**
+     * Provides the reporter responsible for logging exceptions raised by the subscribers of this bus.
+     *
+     * @return The exception reporter of this bus
+     * @since 5.2.0
+     */
+    public ExceptionReporter exceptions() {
+        return this.exceptions;
     }
+
+    private List<EventProfiler.Probe> probes() {
+        return this.buckets.values().stream()
+                .flatMap(bucket -> Arrays.stream(bucket.registrations))
+                .map(Registration::probe)
+                .collect(Collectors.toList());
+    }
+
+    private Bucket bucket(Class<?> type) {
+        Bucket bucket = this.buckets.get(type);
+        if(bucket == null) {
+            bucket = this.buckets.computeIfAbsent(type, key -> new Bucket());
+        }
+
+        return bucket;
+    }
+
+    private void unsubscribe(Registration registration) {
+        Bucket bucket = this.buckets.get(registration.type());
+        if(bucket != null) {
+            bucket.remove(registration);
+        }
+
+        this.subscribers.computeIfPresent(registration.subscriber(), (key, registrations) -> {
+            registrations.remove(registration);
+            return registrations.isEmpty() ? null : registrations;
+        });
+    }
+
+    private Registration[] table(Class<?> type) {
+        Dispatcher dispatcher = this.dispatchers.get(type);
+        Table table = dispatcher.table;
+        while(!table.valid()) {
+            // The table is validated again once published, as a bucket modified while compiling may have
+            // discarded the previous table before this one replaced it
+            table = this.compile(dispatcher);
+            dispatcher.table = table;
+        }
+
+        return table.subscribers;
+    }
+
+    private Table compile(Dispatcher dispatcher) {
+        Bucket[] buckets = new Bucket[dispatcher.hierarchy.length];
+        long[] versions = new long[buckets.length];
+        List<Registration> subscribers = new ArrayList<>();
+        for(int i = 0; i < buckets.length; i++) {
+            // Buckets are created for every type within the hierarchy, such that subscribing to any of them
+            // later modifies a bucket this table depends on. The dispatcher is registered as a dependent
+            // before reading the version, such that any later modification is guaranteed to discard the table.
+            Bucket bucket = this.bucket(dispatcher.hierarchy[i]);
+            bucket.dependents.add(dispatcher);
+            buckets[i] = bucket;
+            versions[i] = bucket.version;
+            subscribers.addAll(Arrays.asList(bucket.registrations));
+        }
+
+        if(subscribers.isEmpty()) {
+            return new Table(buckets, versions, EMPTY);
+        }
+
+        Registration[] table = subscribers.toArray(EMPTY);
+        Arrays.sort(table, Comparator.comparingInt(Registration::order).thenComparingLong(Registration::sequence));
+        return new Table(buckets, versions, table);
+    }
+
+    /**
+     * Buffers events posted on behalf of a {@link BatchSubscriber}, handing them over in batches once either
+     * the batch size is reached, or the subscriber's interval elapses.
+     */
+    private final class Batcher<T> implements EventSubscriber<T> {
+
+        private final BatchSubscriber<T> subscriber;
+        private final Scheduler scheduler;
+        private final int size;
+        private final int capacity;
+        private final BatchSubscriber.Overflow overflow;
+
+        private final Queue<T> buffer = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger buffered = new AtomicInteger();
+        private final LongAdder discarded = new LongAdder();
+
+        private Batcher(BatchSubscriber<T> subscriber, Scheduler scheduler) {
+            this.subscriber = subscriber;
+            this.scheduler = scheduler;
+            this.size = subscriber.size();
+            this.capacity = subscriber.capacity();
+            this.overflow = subscriber.overflow();
+        }
+
+        @Override
+        public void on(@NonNull T event) {
+            int count = this.buffered.incrementAndGet();
+            if(count > this.capacity) {
+                if(this.overflow == BatchSubscriber.Overflow.DISCARD_NEWEST) {
+                    this.buffered.decrementAndGet();
+                    this.discarded.increment();
+                    return;
+                }
+
+                if(this.buffer.poll() != null) {
+                    this.buffered.decrementAndGet();
+                    this.discarded.increment();
+                }
+            }
+
+            this.buffer.offer(event);
+            if(count == this.size) {
+                this.scheduler.publish(this::flush);
+            }
+        }
+
+        @Override
+        public int postOrder() {
+            return PostOrders.LAST;
+        }
+
+        @Override
+        public boolean acceptsCancelled() {
+            return this.subscriber.acceptsCancelled();
+        }
+
+        private synchronized void flush() {
+            long discarded = this.discarded.sumThenReset();
+            if(discarded > 0) {
+                ImpactorEventBus.this.logger.warn("Batch subscriber " + this.subscriber + " discarded " + discarded + " events after reaching its buffer capacity of " + this.capacity);
+            }
+
+            while(true) {
+                List<T> batch = new ArrayList<>(Math.min(this.size, this.buffered.get()));
+                T next;
+                while(batch.size() < this.size && (next = this.buffer.poll()) != null) {
+                    batch.add(next);
+                }
+
+                if(batch.isEmpty()) {
+                    return;
+                }
+
+                this.buffered.addAndGet(-batch.size());
+                try {
+                    this.subscriber.on(batch);
+                } catch (Throwable e) {
+                    ImpactorEventBus.this.logger.severe("Batch subscriber " + this.subscriber + " failed to handle a batch of " + batch.size() + " events", e);
+                }
+
+                if(batch.size() < this.size) {
+                    return;
+                }
+            }
+        }
+
+    }
+
+    /**
+     * Invokes an annotated listener method. Where possible, the method is bound to a {@link BiConsumer} generated
+     * by {@link LambdaMetafactory}, which the JIT is able to inline as it would a hand-written lambda. Should
+     * the lookup lack the full privilege access required for invoker generation, the method is instead invoked
+     * through a bound {@link MethodHandle}.
+     */
+    private static final class MethodSubscriber implements EventSubscriber<ImpactorEvent> {
+
+        private final Object listener;
+        private final String name;
+        private final int order;
+        private final boolean acceptsCancelled;
+
+        private final BiConsumer<Object, Object> invoker;
+        private final MethodHandle handle;
+
+        private MethodSubscriber(Object listener, Method method, Listen listen, MethodHandles.Lookup lookup, Log4jLogger logger) {
+            this.listener = listener;
+            this.name = method.getDeclaringClass().getName() + "#" + method.getName();
+            this.order = listen.order();
+            this.acceptsCancelled = !listen.ignoreCancelled();
+
+            MethodHandle target;
+            MethodHandles.Lookup access;
+            try {
+                access = lookup.lookupClass() == method.getDeclaringClass() ? lookup : MethodHandles.privateLookupIn(method.getDeclaringClass(), lookup);
+                target = access.unreflect(method);
+            } catch (IllegalAccessException e) {
+                throw new IllegalArgumentException("Unable to access listener method " + method, e);
+            }
+
+            this.invoker = generate(access, target, this.name, logger);
+            this.handle = this.invoker == null ? target.bindTo(listener).asType(MethodType.methodType(void.class, Object.class)) : null;
+        }
+
+        @Override
+        public void on(@NonNull ImpactorEvent event) throws Throwable {
+            if(this.invoker != null) {
+                this.invoker.accept(this.listener, event);
+            } else {
+                this.handle.invokeExact((Object) event);
+            }
+        }
+
+        @Override
+        public int postOrder() {
+            return this.order;
+        }
+
+        @Override
+        public boolean acceptsCancelled() {
+            return this.acceptsCancelled;
+        }
+
+        @Override
+        public String toString() {
+            return this.name;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static @Nullable BiConsumer<Object, Object> generate(MethodHandles.Lookup lookup, MethodHandle target, String name, Log4jLogger logger) {
+            if(!lookup.hasFullPrivilegeAccess()) {
+                logger.debug("Invoking listener method " + name + " via method handle, as " + lookup + " lacks full privilege access");
+                return null;
+            }
+
+            CallSite site;
+            try {
+                site = LambdaMetafactory.metafactory(
+                        lookup,
+                        "accept",
+                        MethodType.methodType(BiConsumer.class),
+                        MethodType.methodType(void.class, Object.class, Object.class),
+                        target,
+                        target.type().changeReturnType(void.class)
+                );
+            } catch (LambdaConversionException e) {
+                logger.debug("Invoking listener method " + name + " via method handle, as an invoker could not be generated: " + e.getMessage());
+                return null;
+            }
+
+            try {
+                return (BiConsumer<Object, Object>) site.getTarget().invokeExact();
+            } catch (Throwable e) {
+                throw new IllegalStateException("Failed to create invoker for listener method " + name, e);
+            }
+        }
+
+    }
+
+    private record Registration(
+            Class<?> type,
+            EventSubscriber<? super ImpactorEvent> subscriber,
+            int order,
+            boolean acceptsCancelled,
+            long sequence,
+            EventProfiler.Probe probe
+    ) {}
+
+    /**
+     * A compiled dispatch table, alongside the versions of the buckets it was compiled from.
+     */
+    private record Table(Bucket[] sources, long[] versions, Registration[] subscribers) {
+
+        private boolean valid() {
+            if(this == INVALID) {
+                return false;
+            }
+
+            for(int i = 0; i < this.sources.length; i++) {
+                if(this.sources[i].version != this.versions[i]) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+    }
+
+    private static final class Dispatcher {
+
+        private final Class<?>[] hierarchy;
+        private volatile Table table = INVALID;
+
+        private Dispatcher(Class<?> type) {
+            Set<Class<?>> hierarchy = new LinkedHashSet<>();
+            collect(type, hierarchy);
+            this.hierarchy = hierarchy.toArray(new Class<?>[0]);
+        }
+
+        private static void collect(Class<?> type, Set<Class<?>> hierarchy) {
+            if(type == null || !hierarchy.add(type)) {
+                return;
+            }
+
+            collect(type.getSuperclass(), hierarchy);
+            for(Class<?> parent : type.getInterfaces()) {
+                collect(parent, hierarchy);
+            }
+        }
+
+    }
+
+    /**
+     * Holds the registrations of a single event type. Registrations are held within a copy-on-write array,
+     * where writes are serialized per bucket, and the version of the bucket is bumped after each write such
+     * that tables compiled from the bucket can detect the change.
+     */
+    private static final class Bucket {
+
+        private final Set<Dispatcher> dependents = ConcurrentHashMap.newKeySet();
+        private volatile Registration[] registrations = EMPTY;
+        private volatile long version;
+
+        private synchronized void add(Registration registration) {
+            Registration[] current = this.registrations;
+            Registration[] result = Arrays.copyOf(current, current.length + 1);
+            result[current.length] = registration;
+            this.registrations = result;
+            this.version++;
+            this.invalidate();
+        }
+
+        private synchronized void remove(Registration registration) {
+            Registration[] current = this.registrations;
+            for(int i = 0; i < current.length; i++) {
+                if(current[i] == registration) {
+                    Registration[] result = new Registration[current.length - 1];
+                    System.arraycopy(current, 0, result, 0, i);
+                    System.arraycopy(current, i + 1, result, i, current.length - i - 1);
+                    this.registrations = result;
+                    this.version++;
+                    this.invalidate();
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Discards the tables compiled from this bucket, such that registrations removed from the bucket are
+         * no longer reachable through a stale table.
+         */
+        private void invalidate() {
+            for(Dispatcher dependent : this.dependents) {
+                dependent.table = INVALID;
+            }
+        }
+
+    }
+
 }
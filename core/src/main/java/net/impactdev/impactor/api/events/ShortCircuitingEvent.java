@@ -0,0 +1,48 @@
+/*
+ * This file is part of Impactor, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2018-2022 NickImpact
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package net.impactdev.impactor.api.events;
+
+import net.kyori.event.Cancellable;
+
+/**
+ * Represents a cancellable event where cancellation acts as a veto. Once a subscriber cancels an event of this
+ * nature, the {@link ImpactorEventBus} halts its dispatch, and no further subscribers are invoked. This includes
+ * subscribers which otherwise {@link net.kyori.event.EventSubscriber#acceptsCancelled() accept cancelled events},
+ * such that expensive downstream work like logging or UI refreshes is skipped entirely for vetoed actions.
+ *
+ * <p>As subscribers are invoked in {@link net.kyori.event.PostOrders post order}, subscribers intending to veto an
+ * event should subscribe with an early post order, while those reacting to the outcome of an event should
+ * subscribe with a late post order.</p>
+ *
+ * <p>Short-circuiting is opt-in per event type, and existing {@link Cancellable} events are deliberately left
+ * as they are. Changing an established event type to inherit from this interface is a breaking change, as its
+ * subscribers which accept cancelled events, such as those auditing or reacting to vetoed actions, would
+ * silently stop being invoked. Event types wanting these semantics should therefore adopt them as they are
+ * introduced, or provide a new short-circuiting variant alongside the existing type.</p>
+ *
+ * @since 5.2.0
+ */
+public interface ShortCircuitingEvent extends ImpactorEvent, Cancellable {}
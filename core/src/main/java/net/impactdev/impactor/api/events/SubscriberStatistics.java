@@ -0,0 +1,82 @@
+/*
+ * This file is part of Impactor, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2018-2022 NickImpact
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package net.impactdev.impactor.api.events;
+
+import net.impactdev.impactor.api.platform.plugins.PluginMetadata;
+import net.impactdev.impactor.api.utility.printing.PrettyPrinter;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+
+/**
+ * Represents a snapshot of the statistics gathered for a single subscriber by an {@link EventProfiler}.
+ * Timings are gathered only for sampled posts, and as such, should be considered relative to the
+ * number of samples rather than the total number of events posted.
+ *
+ * @param owner The plugin which registered the subscriber, if known
+ * @param subscriber A description of the subscriber
+ * @param event The type of event the subscriber is registered against
+ * @param samples The number of sampled invocations of the subscriber
+ * @param total The cumulative time spent across all sampled invocations
+ * @param max The longest recorded invocation
+ * @param exceptions The number of exceptions raised by the subscriber while profiling was enabled
+ * @since 5.2.0
+ */
+public record SubscriberStatistics(
+        @Nullable PluginMetadata owner,
+        String subscriber,
+        Class<?> event,
+        long samples,
+        Duration total,
+        Duration max,
+        long exceptions
+) implements PrettyPrinter.IPrettyPrintable {
+
+    /**
+     * Represents the average time spent per sampled invocation of the subscriber.
+     *
+     * @return The average invocation time
+     */
+    public Duration average() {
+        return this.samples == 0 ? Duration.ZERO : this.total.dividedBy(this.samples);
+    }
+
+    @Override
+    public void print(PrettyPrinter printer) {
+        printer.kv("Owner", this.owner != null ? this.owner.id() : "Unknown");
+        printer.kv("Subscriber", this.subscriber);
+        printer.kv("Event", this.event.getSimpleName());
+        printer.kv("Samples", this.samples);
+        printer.kv("Time (avg)", format(this.average()));
+        printer.kv("Time (max)", format(this.max));
+        printer.kv("Exceptions", this.exceptions);
+    }
+
+    static String format(Duration duration) {
+        return String.format("%.3f ms", duration.toNanos() / 1_000_000.0);
+    }
+
+}
@@ -0,0 +1,61 @@
+/*
+ * This file is part of Impactor, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2018-2022 NickImpact
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package net.impactdev.impactor.api.events.journal;
+
+import net.impactdev.impactor.api.events.ImpactorEvent;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Translates an event to and from the binary form stored within an {@link EventJournal}. Codecs are free to
+ * choose their own encoding, but must read back exactly the bytes they wrote.
+ *
+ * @param <T> The type of event handled by this codec
+ * @since 5.2.0
+ */
+public interface EventCodec<T extends ImpactorEvent> {
+
+    /**
+     * Writes the given event to the output.
+     *
+     * @param event The event to write
+     * @param output The output to write the event to
+     * @throws IOException If the event could not be written
+     */
+    void write(T event, DataOutput output) throws IOException;
+
+    /**
+     * Reads an event previously written by {@link #write(ImpactorEvent, DataOutput)}.
+     *
+     * @param input The input to read the event from
+     * @return The event
+     * @throws IOException If the event could not be read
+     */
+    T read(DataInput input) throws IOException;
+
+}
@@ -0,0 +1,355 @@
+/*
+ * This file is part of Impactor, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2018-2022 NickImpact
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package net.impactdev.impactor.api.events.journal;
+
+import com.google.common.base.Preconditions;
+import com.google.common.io.ByteArrayDataInput;
+import com.google.common.io.ByteArrayDataOutput;
+import com.google.common.io.ByteStreams;
+import net.impactdev.impactor.api.events.ImpactorEvent;
+import net.impactdev.impactor.api.events.ImpactorEventBus;
+import net.impactdev.impactor.api.logging.PluginLogger;
+import net.kyori.adventure.key.Key;
+import net.kyori.event.EventSubscriber;
+import net.kyori.event.EventSubscription;
+import net.kyori.event.PostOrders;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only journal of posted events, backed by a memory-mapped file. Only event types explicitly
+ * {@link #register(Key, Class, EventCodec) registered} with the journal are recorded, allowing the events
+ * responsible for in-memory state, such as economy transactions, to be replayed after a restart in place of
+ * rebuilding that state from storage. Journals may equally be replayed offline to reproduce a recorded load.
+ *
+ * <p>Each record is stored as the length of the record and a CRC32 checksum of its body, followed by the body
+ * itself, being the key of its codec, the time it was recorded, and the encoded event. As each record is
+ * length-prefixed, records of types unknown to the reader are skipped during replay. Should the process
+ * terminate while a record is being written, the torn record fails its checksum, and is treated as the end of
+ * the journal, with new records being appended in its place. The file grows as required, doubling in size each
+ * time it is exhausted.</p>
+ *
+ * <p>Events are recorded by the codec registered for the most specific type they are an instance of, such that
+ * a codec registered for an interface records every implementation of it.</p>
+ *
+ * <p>A journal records events once {@link #attach(ImpactorEventBus) attached} to a bus, and only records events
+ * which were not cancelled by the end of their dispatch. Replaying a journal into the bus it is attached to
+ * would record each event a second time, so journals should be replayed prior to being attached.</p>
+ *
+ * @since 5.2.0
+ */
+public final class EventJournal implements Closeable {
+
+    private static final int HEADER = Integer.BYTES * 2;
+
+    private final PluginLogger logger;
+    private final FileChannel channel;
+    private final Map<String, Codec<?>> codecs = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Codec<?>> types = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Optional<Codec<?>>> resolved = new ConcurrentHashMap<>();
+
+    private MappedByteBuffer buffer;
+
+    private EventJournal(PluginLogger logger, FileChannel channel, long capacity) throws IOException {
+        this.logger = logger;
+        this.channel = channel;
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(capacity, channel.size()));
+        this.buffer.position(this.end());
+    }
+
+    /**
+     * Opens the journal stored at the given path, creating it if it does not already exist. Records held by an
+     * existing journal are retained, with new records being appended after them.
+     *
+     * @param path The path of the journal file
+     * @param capacity The initial size of the journal file in bytes
+     * @param logger The logger used to report failures to record an event
+     * @return The opened journal
+     * @throws IOException If the journal could not be opened
+     */
+    public static EventJournal open(final @NotNull Path path, final long capacity, final @NotNull PluginLogger logger) throws IOException {
+        Preconditions.checkArgument(capacity > HEADER && capacity <= Integer.MAX_VALUE, "Capacity must be within (8, 2^31 - 1]");
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return new EventJournal(logger, channel, capacity);
+    }
+
+    /**
+     * Registers a codec for the given event type, allowing events of that type to be recorded and replayed.
+     * The key identifies the codec within the journal, and must remain stable across restarts.
+     *
+     * @param key The key identifying the codec
+     * @param type The type of event handled by the codec
+     * @param codec The codec
+     * @param <T> The type of event
+     * @return This journal
+     */
+    public <T extends ImpactorEvent> EventJournal register(final @NotNull Key key, final @NotNull Class<T> type, final @NotNull EventCodec<T> codec) {
+        Codec<T> entry = new Codec<>(key, type, codec);
+        Preconditions.checkArgument(this.codecs.putIfAbsent(key.asString(), entry) == null, "A codec is already registered under %s", key.asString());
+        this.types.put(type, entry);
+        this.resolved.clear();
+        return this;
+    }
+
+    /**
+     * Begins recording events of every registered type posted to the given bus. Events are recorded as the
+     * last step of their dispatch, and only if they were not cancelled.
+     *
+     * @param bus The bus to record events from
+     * @return A subscription which can be used to stop recording
+     */
+    public EventSubscription attach(final @NotNull ImpactorEventBus bus) {
+        List<EventSubscription> subscriptions = new ArrayList<>();
+        for(Codec<?> codec : this.types.values()) {
+            subscriptions.add(this.attach(bus, codec));
+        }
+
+        return () -> subscriptions.forEach(EventSubscription::unsubscribe);
+    }
+
+    /**
+     * Appends an event to the journal, using the codec registered for the most specific type the event is an
+     * instance of. Events without any applicable codec are ignored.
+     *
+     * @param event The event to record
+     */
+    public void append(final @NotNull ImpactorEvent event) {
+        Codec<?> codec = this.resolve(event.getClass());
+        if(codec != null) {
+            this.append(codec, event);
+        }
+    }
+
+    /**
+     * Reads every record of the journal in the order they were written, handing each decoded event to the
+     * given consumer alongside the time it was recorded. Records of unregistered types are skipped.
+     *
+     * @param consumer The consumer of each recorded event
+     */
+    public synchronized void replay(final @NotNull BiConsumer<Instant, ImpactorEvent> consumer) {
+        int end = this.buffer.position();
+        int position = 0;
+        while(position < end) {
+            byte[] record = this.read(position, end);
+            if(record == null) {
+                this.logger.warn("Discarding corrupt event journal record at offset " + position + ", and every record after it");
+                return;
+            }
+
+            position += HEADER + record.length;
+            ByteArrayDataInput input = ByteStreams.newDataInput(record);
+            Codec<?> codec = this.codecs.get(input.readUTF());
+            Instant time = Instant.ofEpochMilli(input.readLong());
+            if(codec == null) {
+                continue;
+            }
+
+            try {
+                consumer.accept(time, codec.codec.read(input));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to decode journal record of type " + codec.key.asString(), e);
+            }
+        }
+    }
+
+    /**
+     * Posts every recorded event to the given bus, in the order they were written.
+     *
+     * @param bus The bus to post recorded events to
+     */
+    public void replay(final @NotNull ImpactorEventBus bus) {
+        this.replay((time, event) -> bus.post(event));
+    }
+
+    /**
+     * Indicates the number of bytes of the journal currently occupied by records.
+     *
+     * @return The size of the journal's records in bytes
+     */
+    public synchronized int size() {
+        return this.buffer.position();
+    }
+
+    /**
+     * Forces any records held in memory to be written to the underlying file.
+     */
+    public synchronized void flush() {
+        this.buffer.force();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        this.buffer.force();
+        this.channel.close();
+    }
+
+    private <T extends ImpactorEvent> EventSubscription attach(ImpactorEventBus bus, Codec<T> codec) {
+        return bus.subscribe(codec.type, new EventSubscriber<T>() {
+            @Override
+            public void on(@NonNull T event) {
+                // An event matching several codecs is only recorded by the most specific of them
+                if(EventJournal.this.resolve(event.getClass()) == codec) {
+                    EventJournal.this.append(codec, event);
+                }
+            }
+
+            @Override
+            public int postOrder() {
+                return PostOrders.LAST;
+            }
+
+            @Override
+            public boolean acceptsCancelled() {
+                return false;
+            }
+
+            @Override
+            public String toString() {
+                return "EventJournal[" + codec.key.asString() + "]";
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends ImpactorEvent> void append(Codec<T> codec, ImpactorEvent event) {
+        ByteArrayDataOutput output = ByteStreams.newDataOutput();
+        try {
+            output.writeUTF(codec.key.asString());
+            output.writeLong(System.currentTimeMillis());
+            codec.codec.write((T) event, output);
+        } catch (IOException e) {
+            this.logger.severe("Failed to encode event of type " + codec.key.asString() + " for the journal", e);
+            return;
+        }
+
+        byte[] record = output.toByteArray();
+        CRC32 checksum = new CRC32();
+        checksum.update(record);
+        synchronized (this) {
+            try {
+                this.ensure(HEADER + record.length);
+            } catch (IOException e) {
+                this.logger.severe("Failed to grow the event journal, dropping event of type " + codec.key.asString(), e);
+                return;
+            }
+
+            this.buffer.putInt(record.length);
+            this.buffer.putInt((int) checksum.getValue());
+            this.buffer.put(record);
+
+            // Terminate the journal after the new record, such that the remains of any torn record it was
+            // written over are never mistaken for further records
+            if(this.buffer.remaining() >= Integer.BYTES) {
+                this.buffer.putInt(this.buffer.position(), 0);
+            }
+        }
+    }
+
+    private Codec<?> resolve(Class<?> type) {
+        return this.resolved.computeIfAbsent(type, key -> {
+            Codec<?> result = null;
+            for(Codec<?> codec : this.types.values()) {
+                if(codec.type.isAssignableFrom(key) && (result == null || result.type.isAssignableFrom(codec.type))) {
+                    result = codec;
+                }
+            }
+
+            return Optional.ofNullable(result);
+        }).orElse(null);
+    }
+
+    private void ensure(int required) throws IOException {
+        if(this.buffer.remaining() >= required) {
+            return;
+        }
+
+        long capacity = this.buffer.capacity();
+        long target = Math.max(capacity * 2, capacity + required);
+        Preconditions.checkState(target <= Integer.MAX_VALUE, "Event journal has reached its maximum size");
+
+        int position = this.buffer.position();
+        this.buffer.force();
+        this.buffer = this.channel.map(FileChannel.MapMode.READ_WRITE, 0, target);
+        this.buffer.position(position);
+    }
+
+    /**
+     * Locates the end of the records held by the journal. As the file is zero-filled beyond its last record,
+     * the first record with a length of zero, a length exceeding the remainder of the file, or a body failing
+     * its checksum, marks the end.
+     */
+    private int end() {
+        int position = 0;
+        int limit = this.buffer.limit();
+        byte[] record;
+        while((record = this.read(position, limit)) != null) {
+            position += HEADER + record.length;
+        }
+
+        return position;
+    }
+
+    /**
+     * Reads the body of the record at the given position, verifying it against its checksum.
+     *
+     * @return The body of the record, or null if no valid record ends before the given limit
+     */
+    private byte[] read(int position, int limit) {
+        if(position + HEADER > limit) {
+            return null;
+        }
+
+        int length = this.buffer.getInt(position);
+        if(length <= 0 || length > limit - position - HEADER) {
+            return null;
+        }
+
+        byte[] record = new byte[length];
+        this.buffer.get(position + HEADER, record);
+        CRC32 checksum = new CRC32();
+        checksum.update(record);
+        return (int) checksum.getValue() == this.buffer.getInt(position + Integer.BYTES) ? record : null;
+    }
+
+    private record Codec<T extends ImpactorEvent>(Key key, Class<T> type, EventCodec<T> codec) {}
+
+}
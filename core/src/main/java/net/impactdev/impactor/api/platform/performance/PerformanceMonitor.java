@@ -26,6 +26,10 @@
 package net.impactdev.impactor.api.platform.performance;
 
 import net.impactdev.impactor.api.Impactor;
+import net.impactdev.impactor.api.scheduler.AbstractJavaScheduler;
+import net.impactdev.impactor.api.scheduler.SchedulerAdapter;
+
+import java.util.Optional;
 
 /**
  * Provides performance statistics involving the server. This includes things such as ticks
@@ -68,6 +72,23 @@ public interface PerformanceMonitor {
      */
     MemoryWatcher memory();
 
+    /**
+     * Provides statistics regarding the worker pool responsible for asynchronous task execution, such as
+     * its current parallelism, queue depth, and steal count. This is only available when the platform's
+     * scheduler is backed by an {@link AbstractJavaScheduler}.
+     *
+     * @return Statistics regarding the asynchronous worker pool, or empty if not available
+     */
+    @SuppressWarnings("removal")
+    default Optional<WorkerPoolStatistics> workers() {
+        SchedulerAdapter scheduler = Impactor.instance().scheduler();
+        if(scheduler instanceof AbstractJavaScheduler java) {
+            return Optional.of(java.statistics());
+        }
+
+        return Optional.empty();
+    }
+
     interface Factory {
 
         PerformanceMonitor create();
@@ -0,0 +1,54 @@
+/*
+ * This file is part of Impactor, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2018-2022 NickImpact
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package net.impactdev.impactor.api.platform.performance;
+
+/**
+ * Represents a snapshot of the state of the worker pool responsible for executing asynchronous tasks. These
+ * statistics are meant to help operators identify when the pool is saturated, such as when queued work keeps
+ * growing while all workers remain active.
+ *
+ * @param parallelism The targeted number of concurrently running workers
+ * @param min The lower bound the pool may shrink its parallelism to
+ * @param max The upper bound the pool may grow its parallelism, or compensating threads, to
+ * @param size The number of worker threads currently started
+ * @param active The number of workers currently executing or stealing tasks
+ * @param running The number of workers which are not blocked waiting on synchronization
+ * @param queuedSubmissions The number of tasks submitted to the pool which have yet to begin executing
+ * @param queuedTasks The number of tasks currently held within worker queues
+ * @param steals The total number of tasks stolen from one worker queue by another
+ * @since 5.2.0
+ */
+public record WorkerPoolStatistics(
+        int parallelism,
+        int min,
+        int max,
+        int size,
+        int active,
+        int running,
+        int queuedSubmissions,
+        long queuedTasks,
+        long steals
+) {}
@@ -25,9 +25,14 @@
 
 package net.impactdev.impactor.api.scheduler;
 
+import com.google.common.base.Preconditions;
 import net.impactdev.impactor.api.Impactor;
 import net.impactdev.impactor.api.logging.PluginLogger;
+import net.impactdev.impactor.api.platform.performance.WorkerPoolStatistics;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.util.Arrays;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
@@ -68,30 +73,108 @@ import java.util.stream.Collectors;
 
 /**
  * Abstract implementation of {@link SchedulerAdapter} using a {@link ScheduledExecutorService}.
+ *
+ * <p>Delayed and repeating tasks are triggered by a set of timer shards, each of which is a single threaded
+ * {@link ScheduledThreadPoolExecutor} with its own queue. Tasks are assigned to a shard by their identity,
+ * which spreads both the cost of maintaining each timer queue and the jitter of firing timers across the
+ * shards, rather than funneling every task through a single thread. Once fired, the task itself is handed
+ * off to the worker pool.</p>
+ *
+ * <p>The worker pool is bounded by a minimum and maximum level of parallelism. Its initial parallelism, along
+ * with each of these bounds, can be overridden via the <code>impactor.scheduler.workers</code>,
+ * <code>impactor.scheduler.workers.min</code>, and <code>impactor.scheduler.workers.max</code> system
+ * properties respectively. While running, the pool periodically inspects its queue depth, activity, and
+ * steal count, growing while its backlog persists and shrinking when idle, within those bounds. Independently
+ * of these bounds, the pool may always temporarily add threads to compensate for blocked workers.</p>
+ *
+ * <p>Runtime resizing relies on {@link ForkJoinPool}<code>#setParallelism</code>, which was only introduced
+ * in Java 19. Where it is available, the pool starts at the number of available processors and adapts from
+ * there. On Java 17, the minimum runtime targeted by Impactor, the method is unavailable and adaptation is
+ * disabled entirely. The pool then retains the historical fixed parallelism of 16 workers for its entire
+ * lifetime, so that hosts with few processors are not left with a permanently smaller pool.</p>
  */
 public abstract class AbstractJavaScheduler implements SchedulerAdapter {
 
     private static final String THREAD_NAME = "Impactor Scheduler";
     private static final String WORKER_PREFIX = "Impactor Worker - ";
-    private static final int PARALLELISM = 16;
+    private static final int PROCESSORS = Runtime.getRuntime().availableProcessors();
+    private static final MethodHandle SET_PARALLELISM = locateSetParallelism();
+    private static final int MIN_PARALLELISM = Integer.getInteger("impactor.scheduler.workers.min", 2);
+    private static final int MAX_PARALLELISM = Integer.getInteger("impactor.scheduler.workers.max", Math.max(16, PROCESSORS * 2));
+    private static final int PARALLELISM = Integer.getInteger("impactor.scheduler.workers", SET_PARALLELISM != null ? PROCESSORS : 16);
+    private static final long ADAPT_INTERVAL = TimeUnit.SECONDS.toMillis(1);
+    private static final int SHARDS = Math.max(1, Math.min(4, PROCESSORS / 2));
+    private static final int MAX_POOL_SIZE = 0x7fff;
 
     private final PluginLogger logger;
 
-    private final ScheduledThreadPoolExecutor scheduler;
+    private final ScheduledThreadPoolExecutor[] scheduler;
     private final ForkJoinPool worker;
+    private final int min;
+    private final int max;
+    private int idle;
+    private long queued;
+    private long steals;
 
     public AbstractJavaScheduler(final PluginLogger logger) {
+        this(logger, SHARDS);
+    }
+
+    public AbstractJavaScheduler(final PluginLogger logger, final int shards) {
+        Preconditions.checkArgument(shards > 0, "At least one timer shard is required");
         this.logger = logger;
 
-        this.scheduler = new ScheduledThreadPoolExecutor(1, r -> {
-            Thread thread = Executors.defaultThreadFactory().newThread(r);
-            thread.setName(THREAD_NAME);
-            thread.setDaemon(true);
-            return thread;
-        });
-        this.scheduler.setRemoveOnCancelPolicy(true);
-        this.scheduler.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
-        this.worker = new ForkJoinPool(PARALLELISM, new WorkerThreadFactory(), new ExceptionHandler(), false);
+        this.scheduler = new ScheduledThreadPoolExecutor[shards];
+        for(int i = 0; i < shards; i++) {
+            String name = shards == 1 ? THREAD_NAME : THREAD_NAME + " - " + i;
+            ScheduledThreadPoolExecutor shard = new ScheduledThreadPoolExecutor(1, r -> {
+                Thread thread = Executors.defaultThreadFactory().newThread(r);
+                thread.setName(name);
+                thread.setDaemon(true);
+                return thread;
+            });
+            shard.setRemoveOnCancelPolicy(true);
+            shard.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+            this.scheduler[i] = shard;
+        }
+
+        this.min = Math.max(1, Math.min(MIN_PARALLELISM, MAX_PARALLELISM));
+        this.max = Math.max(this.min, MAX_PARALLELISM);
+        this.worker = new ForkJoinPool(
+                Math.max(this.min, Math.min(this.max, PARALLELISM)),
+                new WorkerThreadFactory(),
+                new ExceptionHandler(),
+                false,
+                0,
+                MAX_POOL_SIZE,
+                1,
+                null,
+                60,
+                TimeUnit.SECONDS
+        );
+
+        if(SET_PARALLELISM != null && this.min < this.max) {
+            this.scheduler[0].scheduleWithFixedDelay(this::adapt, ADAPT_INTERVAL, ADAPT_INTERVAL, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Captures the current state of the worker pool backing this scheduler.
+     *
+     * @return A snapshot of the worker pool's statistics
+     */
+    public WorkerPoolStatistics statistics() {
+        return new WorkerPoolStatistics(
+                this.worker.getParallelism(),
+                this.min,
+                this.max,
+                this.worker.getPoolSize(),
+                this.worker.getActiveThreadCount(),
+                this.worker.getRunningThreadCount(),
+                this.worker.getQueuedSubmissionCount(),
+                this.worker.getQueuedTaskCount(),
+                this.worker.getStealCount()
+        );
     }
 
     @Override
@@ -101,28 +184,35 @@ public abstract class AbstractJavaScheduler implements SchedulerAdapter {
 
     @Override
     public SchedulerTask asyncLater(Runnable task, long delay, TimeUnit unit) {
-        ScheduledFuture<?> future = this.scheduler.schedule(() -> this.worker.execute(task), delay, unit);
+        ScheduledFuture<?> future = this.shard(task).schedule(() -> this.worker.execute(task), delay, unit);
         return () -> future.cancel(false);
     }
 
     @Override
     public SchedulerTask asyncRepeating(Runnable task, long interval, TimeUnit unit) {
-        ScheduledFuture<?> future = this.scheduler.scheduleAtFixedRate(() -> this.worker.execute(task), interval, interval, unit);
+        ScheduledFuture<?> future = this.shard(task).scheduleAtFixedRate(() -> this.worker.execute(task), interval, interval, unit);
         return () -> future.cancel(false);
     }
 
     @Override
     public SchedulerTask asyncDelayedAndRepeating(Runnable task, long delay, long interval, TimeUnit unit) {
-        ScheduledFuture<?> future = this.scheduler.scheduleAtFixedRate(() -> this.worker.execute(task), interval, interval, unit);
+        ScheduledFuture<?> future = this.shard(task).scheduleAtFixedRate(() -> this.worker.execute(task), delay, interval, unit);
         return () -> future.cancel(false);
     }
 
     public void shutdownScheduler() {
-        this.scheduler.shutdown();
+        for(ScheduledThreadPoolExecutor shard : this.scheduler) {
+            shard.shutdown();
+        }
+
         try {
-            if (!this.scheduler.awaitTermination(10, TimeUnit.SECONDS)) {
-                this.logger.severe("Timed out waiting for the Impactor scheduler to terminate");
-                reportRunningTasks(thread -> thread.getName().equals(THREAD_NAME));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            for(ScheduledThreadPoolExecutor shard : this.scheduler) {
+                if (!shard.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                    this.logger.severe("Timed out waiting for the Impactor scheduler to terminate");
+                    reportRunningTasks(thread -> thread.getName().startsWith(THREAD_NAME));
+                    break;
+                }
             }
         } catch (InterruptedException e) {
             e.printStackTrace();
@@ -141,6 +231,51 @@ public abstract class AbstractJavaScheduler implements SchedulerAdapter {
         }
     }
 
+    /**
+     * Grows the worker pool when work is backing up while every worker is busy, and shrinks it once
+     * the pool has remained largely idle over several consecutive checks.
+     *
+     * <p>The backlog is compared against the backlog seen by the previous check, such that the pool only
+     * grows while its workers have failed to reduce the backlog over a full interval. Steals over that same
+     * interval indicate workers exchanging work, and as such the pool is never considered idle while any
+     * have occurred.</p>
+     */
+    private void adapt() {
+        int parallelism = this.worker.getParallelism();
+        long queued = this.worker.getQueuedSubmissionCount() + this.worker.getQueuedTaskCount();
+        long previous = this.queued;
+        this.queued = queued;
+        int active = this.worker.getActiveThreadCount();
+        long steals = this.worker.getStealCount();
+        long stolen = steals - this.steals;
+        this.steals = steals;
+
+        int target = parallelism;
+        if(queued > parallelism && active >= parallelism && queued >= previous) {
+            this.idle = 0;
+            target = Math.min(this.max, parallelism + Math.max(1, parallelism / 4));
+        } else if(queued == 0 && active < parallelism / 2 && stolen == 0) {
+            if(++this.idle >= 5) {
+                this.idle = 0;
+                target = Math.max(this.min, parallelism - 1);
+            }
+        } else {
+            this.idle = 0;
+        }
+
+        if(target != parallelism) {
+            try {
+                SET_PARALLELISM.invoke(this.worker, target);
+            } catch (Throwable e) {
+                this.logger.warn("Failed to resize the Impactor worker pool", e);
+            }
+        }
+    }
+
+    private ScheduledThreadPoolExecutor shard(Runnable task) {
+        return this.scheduler[Math.floorMod(System.identityHashCode(task), this.scheduler.length)];
+    }
+
     private void reportRunningTasks(Predicate<Thread> predicate) {
         Thread.getAllStackTraces().forEach((thread, stack) -> {
             if (predicate.test(thread)) {
@@ -151,6 +286,14 @@ public abstract class AbstractJavaScheduler implements SchedulerAdapter {
         });
     }
 
+    private static MethodHandle locateSetParallelism() {
+        try {
+            return MethodHandles.publicLookup().findVirtual(ForkJoinPool.class, "setParallelism", MethodType.methodType(int.class, int.class));
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
     private static final class WorkerThreadFactory implements ForkJoinPool.ForkJoinWorkerThreadFactory {
         private static final AtomicInteger COUNT = new AtomicInteger(0);
 
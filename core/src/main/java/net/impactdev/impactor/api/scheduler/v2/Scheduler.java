@@ -25,15 +25,21 @@
 
 package net.impactdev.impactor.api.scheduler.v2;
 
+import net.impactdev.impactor.api.platform.plugins.PluginMetadata;
 import net.impactdev.impactor.api.scheduler.SchedulerTask;
 import net.impactdev.impactor.api.scheduler.Ticks;
+import net.impactdev.impactor.api.scheduler.v2.diagnostics.InstrumentedScheduler;
+import net.impactdev.impactor.api.scheduler.v2.diagnostics.TaskProfiler;
 import net.kyori.adventure.key.Key;
 import org.checkerframework.checker.index.qual.NonNegative;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * Represents a system capable of running tasks set on a scheduled configuration. Schedulers running under this
@@ -70,6 +76,130 @@ public interface Scheduler {
      */
     void publish(@NotNull Runnable action);
 
+    /**
+     * Indicates whether the calling thread is one on which this scheduler executes its tasks. Schedulers unable
+     * to determine this should report <code>false</code>, which will simply result in a thread hop that could
+     * otherwise have been avoided.
+     *
+     * @return <code>true</code> if the calling thread belongs to this scheduler, <code>false</code> otherwise
+     */
+    default boolean onThread() {
+        return false;
+    }
+
+    /**
+     * Runs the given action immediately on the calling thread, which is expected to already belong to this
+     * scheduler as indicated by {@link #onThread()}. This backs the fast paths of {@link #supply(Supplier)} and
+     * {@link #thenOn(CompletionStage)}, which skip publishing an action when no thread hop is required.
+     *
+     * <p>Views which decorate the actions submitted through them, such as {@link #instrument(PluginMetadata)}
+     * and {@link #grouped(TaskGroup)}, override this method to apply the same decoration to actions run
+     * through these fast paths.</p>
+     *
+     * @param action The action to run
+     */
+    default void inline(@NotNull Runnable action) {
+        action.run();
+    }
+
+    /**
+     * Computes a value on this scheduler, providing a future which completes with the computed value. If the
+     * calling thread already belongs to this scheduler, the value is computed immediately on the calling thread
+     * rather than being published for a later cycle.
+     *
+     * @param supplier The supplier responsible for computing the value
+     * @param <T> The type of value being computed
+     * @return A future completing with the computed value, or exceptionally if the supplier fails
+     */
+    default <T> CompletableFuture<T> supply(@NotNull Supplier<T> supplier) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        if(this.onThread()) {
+            this.inline(() -> supplyInto(future, supplier));
+        } else {
+            this.publish(() -> supplyInto(future, supplier));
+        }
+
+        return future;
+    }
+
+    /**
+     * Computes a value on this scheduler after waiting a set number of ticks. Cancelling the returned
+     * future prior to its completion will cancel the underlying task.
+     *
+     * @param supplier The supplier responsible for computing the value
+     * @param ticks The number of ticks to wait before computing the value
+     * @param <T> The type of value being computed
+     * @return A future completing with the computed value, or exceptionally if the supplier fails
+     */
+    default <T> CompletableFuture<T> supplyDelayed(@NotNull Supplier<T> supplier, @NotNull Ticks ticks) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        SchedulerTask task = this.delayed(() -> supplyInto(future, supplier), ticks);
+        future.whenComplete((result, error) -> {
+            if(future.isCancelled()) {
+                task.cancel();
+            }
+        });
+
+        return future;
+    }
+
+    /**
+     * Computes a value on this scheduler after waiting the given amount of time. Cancelling the returned
+     * future prior to its completion will cancel the underlying task.
+     *
+     * @param supplier The supplier responsible for computing the value
+     * @param delay The amount of time to wait before computing the value
+     * @param unit The time unit describing the amount of time to delay for
+     * @param <T> The type of value being computed
+     * @return A future completing with the computed value, or exceptionally if the supplier fails
+     */
+    default <T> CompletableFuture<T> supplyDelayed(@NotNull Supplier<T> supplier, @NonNegative long delay, @NotNull TimeUnit unit) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        SchedulerTask task = this.delayed(() -> supplyInto(future, supplier), delay, unit);
+        future.whenComplete((result, error) -> {
+            if(future.isCancelled()) {
+                task.cancel();
+            }
+        });
+
+        return future;
+    }
+
+    /**
+     * Provides a future which completes on this scheduler with the result of the given stage. Should the stage
+     * complete on a thread already belonging to this scheduler, the returned future completes immediately on
+     * that thread, avoiding a redundant thread hop.
+     *
+     * @param stage The stage whose result should be handed over to this scheduler
+     * @param <T> The type of value held by the stage
+     * @return A future completing on this scheduler with the result of the given stage
+     */
+    default <T> CompletableFuture<T> thenOn(@NotNull CompletionStage<T> stage) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        stage.whenComplete((result, error) -> {
+            if(this.onThread()) {
+                this.inline(() -> completeInto(future, result, error));
+            } else {
+                this.publish(() -> completeInto(future, result, error));
+            }
+        });
+
+        return future;
+    }
+
+    /**
+     * Provides a future which completes on the {@link #SYNCHRONOUS main thread} scheduler with the result
+     * of the given stage. This is the typical final step of a chain which loads data asynchronously before
+     * presenting it to a player.
+     *
+     * @param stage The stage whose result should be handed over to the main thread
+     * @param <T> The type of value held by the stage
+     * @return A future completing on the main thread with the result of the given stage
+     */
+    static <T> CompletableFuture<T> thenOnMain(@NotNull CompletionStage<T> stage) {
+        return Schedulers.require(SYNCHRONOUS).thenOn(stage);
+    }
+
     /**
      * Submits a task for execution after waiting a set number of ticks. Schedulers can expect ticks
      * to effectively represent 50 milliseconds, making for an average of 20/second.
@@ -135,10 +265,54 @@ public interface Scheduler {
      */
     SchedulerTask delayedAndRepeating(@NotNull Runnable action, @NonNegative long delay, @NonNegative long interval, @NotNull TimeUnit unit);
 
+    /**
+     * Creates a view of this scheduler which records the execution of every task submitted through it
+     * with the {@link TaskProfiler#global() global task profiler}, attributing each task to the given plugin.
+     * Tasks submitted directly to this scheduler remain unaffected.
+     *
+     * @param owner The plugin which will be scheduling tasks through the returned view
+     * @return An instrumented view of this scheduler
+     */
+    default Scheduler instrument(@NotNull PluginMetadata owner) {
+        return new InstrumentedScheduler(this, owner, TaskProfiler.global());
+    }
+
+    /**
+     * Creates a view of this scheduler which tracks every task submitted through it within the given
+     * {@link TaskGroup}, such that cancelling the group cancels every task it still holds. Tasks submitted
+     * directly to this scheduler remain unaffected.
+     *
+     * @param group The group tasks scheduled through the returned view should belong to
+     * @return A view of this scheduler bound to the group
+     */
+    default Scheduler grouped(@NotNull TaskGroup group) {
+        return group.scheduler(this);
+    }
+
     /**
      * Performs shutdown related tasks required by the scheduler. This should do any necessary clean up to ensure
      * task execution is properly halted.
      */
     void shutdown();
 
+    private static <T> void supplyInto(CompletableFuture<T> future, Supplier<T> supplier) {
+        if(future.isDone()) {
+            return;
+        }
+
+        try {
+            future.complete(supplier.get());
+        } catch (Throwable e) {
+            future.completeExceptionally(e);
+        }
+    }
+
+    private static <T> void completeInto(CompletableFuture<T> future, T result, Throwable error) {
+        if(error != null) {
+            future.completeExceptionally(error);
+        } else {
+            future.complete(result);
+        }
+    }
+
 }
@@ -0,0 +1,259 @@
+/*
+ * This file is part of Impactor, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2018-2022 NickImpact
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package net.impactdev.impactor.api.scheduler.v2;
+
+import com.google.common.base.Preconditions;
+import net.impactdev.impactor.api.scheduler.SchedulerTask;
+import net.impactdev.impactor.api.scheduler.Ticks;
+import net.kyori.adventure.key.Key;
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Represents a set of tasks which share a common lifecycle, such as all tasks scheduled on behalf of a
+ * particular player or plugin. Tasks are scheduled into a group through a view of a {@link Scheduler}, acquired
+ * via {@link #scheduler(Scheduler)}, and the entire group can be cancelled in a single call to {@link #cancel()}.
+ *
+ * <p>Only tasks which are still pending are retained by a group. Tasks which run once are released from the
+ * group as soon as they execute, such that a long-lived group does not grow indefinitely. Once a group has been
+ * cancelled, any further attempt to schedule a task through it is cancelled immediately.</p>
+ *
+ * <p>Groups for plugins are available via {@link TaskGroups#plugin(net.impactdev.impactor.api.platform.plugins.PluginMetadata)}.</p>
+ *
+ * @since 5.2.0
+ */
+public final class TaskGroup implements Task {
+
+    private final String name;
+    private final Set<GroupedTask> tasks = ConcurrentHashMap.newKeySet();
+    private volatile boolean cancelled;
+
+    private TaskGroup(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Creates a new, empty task group.
+     *
+     * @param name A name describing the group, for diagnostic purposes
+     * @return A new task group
+     */
+    public static TaskGroup create(final @NotNull String name) {
+        return new TaskGroup(Preconditions.checkNotNull(name, "name"));
+    }
+
+    public String name() {
+        return this.name;
+    }
+
+    /**
+     * Indicates the number of tasks currently pending within this group.
+     *
+     * @return The number of pending tasks
+     */
+    public int size() {
+        return this.tasks.size();
+    }
+
+    /**
+     * Provides a view of the given scheduler, where every task scheduled through the view is tracked by
+     * this group.
+     *
+     * @param scheduler The scheduler tasks should be executed by
+     * @return A scheduler view bound to this group
+     */
+    public Scheduler scheduler(final @NotNull Scheduler scheduler) {
+        return new GroupedScheduler(scheduler);
+    }
+
+    @Override
+    public boolean cancelled() {
+        return this.cancelled;
+    }
+
+    /**
+     * Cancels every task currently pending within this group, and prevents any further tasks from being
+     * scheduled through it.
+     */
+    @Override
+    public void cancel() {
+        this.cancelled = true;
+        for(GroupedTask task : this.tasks) {
+            task.cancel();
+        }
+    }
+
+    private SchedulerTask track(Runnable action, boolean once, Function<Runnable, SchedulerTask> scheduler) {
+        GroupedTask task = new GroupedTask(action, once);
+        if(this.cancelled) {
+            task.cancelled = true;
+            return task;
+        }
+
+        this.tasks.add(task);
+        task.delegate = scheduler.apply(task::run);
+        if(this.cancelled || task.cancelled) {
+            task.cancel();
+        }
+
+        return task;
+    }
+
+    private final class GroupedTask implements SchedulerTask, Task {
+
+        private final Runnable action;
+        private final boolean once;
+
+        private volatile SchedulerTask delegate;
+        private volatile boolean cancelled;
+
+        private GroupedTask(Runnable action, boolean once) {
+            this.action = action;
+            this.once = once;
+        }
+
+        private void run() {
+            if(this.cancelled) {
+                return;
+            }
+
+            try {
+                this.action.run();
+            } finally {
+                if(this.once) {
+                    TaskGroup.this.tasks.remove(this);
+                }
+            }
+        }
+
+        @Override
+        public boolean cancelled() {
+            return this.cancelled;
+        }
+
+        @Override
+        public void cancel() {
+            this.cancelled = true;
+            TaskGroup.this.tasks.remove(this);
+
+            SchedulerTask delegate = this.delegate;
+            if(delegate != null) {
+                delegate.cancel();
+            }
+        }
+
+    }
+
+    private final class GroupedScheduler implements Scheduler {
+
+        private final Scheduler delegate;
+        private final Executor executor = this::publish;
+
+        private GroupedScheduler(Scheduler delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Key key() {
+            return this.delegate.key();
+        }
+
+        @Override
+        public Executor executor() {
+            return this.executor;
+        }
+
+        @Override
+        public boolean onThread() {
+            return this.delegate.onThread();
+        }
+
+        @Override
+        public void publish(@NotNull Runnable action) {
+            if(!TaskGroup.this.cancelled) {
+                this.delegate.publish(() -> {
+                    if(!TaskGroup.this.cancelled) {
+                        action.run();
+                    }
+                });
+            }
+        }
+
+        @Override
+        public void inline(@NotNull Runnable action) {
+            if(!TaskGroup.this.cancelled) {
+                this.delegate.inline(action);
+            }
+        }
+
+        @Override
+        public SchedulerTask delayed(@NotNull Runnable action, @NotNull Ticks ticks) {
+            return TaskGroup.this.track(action, true, task -> this.delegate.delayed(task, ticks));
+        }
+
+        @Override
+        public SchedulerTask delayed(@NotNull Runnable action, @NonNegative long delay, @NotNull TimeUnit unit) {
+            return TaskGroup.this.track(action, true, task -> this.delegate.delayed(task, delay, unit));
+        }
+
+        @Override
+        public SchedulerTask repeating(@NotNull Runnable action, @NotNull Ticks ticks) {
+            return TaskGroup.this.track(action, false, task -> this.delegate.repeating(task, ticks));
+        }
+
+        @Override
+        public SchedulerTask repeating(@NotNull Runnable action, @NonNegative long interval, @NotNull TimeUnit unit) {
+            return TaskGroup.this.track(action, false, task -> this.delegate.repeating(task, interval, unit));
+        }
+
+        @Override
+        public SchedulerTask delayedAndRepeating(@NotNull Runnable action, @NotNull Ticks delay, @NotNull Ticks interval) {
+            return TaskGroup.this.track(action, false, task -> this.delegate.delayedAndRepeating(task, delay, interval));
+        }
+
+        @Override
+        public SchedulerTask delayedAndRepeating(@NotNull Runnable action, @NonNegative long delay, @NonNegative long interval, @NotNull TimeUnit unit) {
+            return TaskGroup.this.track(action, false, task -> this.delegate.delayedAndRepeating(task, delay, interval, unit));
+        }
+
+        /**
+         * Cancels the group this view is bound to. The underlying scheduler is shared, and is therefore
+         * left untouched.
+         */
+        @Override
+        public void shutdown() {
+            TaskGroup.this.cancel();
+        }
+
+    }
+
+}
@@ -0,0 +1,78 @@
+/*
+ * This file is part of Impactor, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2018-2022 NickImpact
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package net.impactdev.impactor.api.scheduler.v2;
+
+import com.google.common.base.Preconditions;
+import net.impactdev.impactor.api.events.ImpactorEventBus;
+import net.impactdev.impactor.api.platform.plugins.PluginMetadata;
+import net.impactdev.impactor.api.platform.plugins.events.PluginShutdownEvent;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maintains the {@link TaskGroup task groups} bound to each plugin. A plugin's group is created on first
+ * request, and is held until it is {@link #release(PluginMetadata) released}. Groups are released
+ * automatically once the platform posts a {@link PluginShutdownEvent} for their plugin.
+ *
+ * @since 5.2.0
+ */
+public final class TaskGroups {
+
+    private static final Map<String, TaskGroup> plugins = new ConcurrentHashMap<>();
+
+    static {
+        ImpactorEventBus.bus().subscribe(PluginShutdownEvent.class, event -> release(event.plugin()));
+    }
+
+    /**
+     * Provides the task group bound to the given plugin, creating it if necessary.
+     *
+     * @param plugin The plugin owning the group
+     * @return The task group bound to the plugin
+     */
+    public static TaskGroup plugin(final @NotNull PluginMetadata plugin) {
+        Preconditions.checkNotNull(plugin);
+        return plugins.computeIfAbsent(plugin.id(), TaskGroup::create);
+    }
+
+    /**
+     * Cancels every task pending within the group bound to the given plugin, and releases the group.
+     * A subsequent request for the plugin's group will provide a new group. This is performed automatically
+     * once the plugin has completed its shutdown phase.
+     *
+     * @param plugin The plugin whose group should be released
+     */
+    public static void release(final @NotNull PluginMetadata plugin) {
+        Preconditions.checkNotNull(plugin);
+        TaskGroup group = plugins.remove(plugin.id());
+        if(group != null) {
+            group.cancel();
+        }
+    }
+
+}
@@ -0,0 +1,183 @@
+/*
+ * This file is part of Impactor, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2018-2022 NickImpact
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package net.impactdev.impactor.api.scheduler.v2.batching;
+
+import com.google.common.base.Preconditions;
+import net.impactdev.impactor.api.logging.PluginLogger;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An executor which coalesces submissions made against the main thread, such as those made via
+ * {@link net.impactdev.impactor.api.scheduler.SchedulerAdapter#executeSync(Runnable)} or
+ * {@link net.impactdev.impactor.api.scheduler.v2.Scheduler#publish(Runnable)} on the synchronous scheduler,
+ * into a single batch drained once per server tick.
+ *
+ * <p>Submissions are placed into a lock-free queue, and no wakeup is ever issued to the main thread. Instead,
+ * the platform is expected to invoke {@link #drain()} once per tick from the main thread. Each drain is bound
+ * by a time budget, and any work that could not be completed within that budget is carried over to the next
+ * tick rather than extending the current one.</p>
+ *
+ * <p>Statistics regarding each drain cycle are made available via {@link #statistics()}, allowing for insight
+ * into how much pressure is being placed on the main thread.</p>
+ *
+ * @since 5.2.0
+ */
+public final class BatchingExecutor implements Executor {
+
+    private final PluginLogger logger;
+    private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    private volatile long budget;
+
+    // Drain statistics, written only by the draining thread
+    private volatile int lastDrained;
+    private volatile int lastBacklog;
+    private volatile long lastDuration;
+    private volatile long totalDrained;
+    private volatile long overflowedTicks;
+
+    /**
+     * Creates a new batching executor, where each drain cycle may spend at most the given budget
+     * executing submitted work.
+     *
+     * @param logger The logger used to report exceptions raised by submitted work
+     * @param budget The maximum amount of time a single drain cycle may consume
+     */
+    public BatchingExecutor(final @NotNull PluginLogger logger, final @NotNull Duration budget) {
+        this.logger = logger;
+        this.budget(budget);
+    }
+
+    /**
+     * Updates the time budget allotted to each drain cycle. This takes effect on the next cycle.
+     *
+     * @param budget The maximum amount of time a single drain cycle may consume
+     */
+    public void budget(final @NotNull Duration budget) {
+        Preconditions.checkArgument(!budget.isNegative() && !budget.isZero(), "Budget must be positive");
+        this.budget = budget.toNanos();
+    }
+
+    @Override
+    public void execute(@NotNull Runnable command) {
+        Preconditions.checkNotNull(command, "command");
+        this.queue.add(command);
+        this.size.incrementAndGet();
+    }
+
+    /**
+     * Executes queued work on the calling thread until either every task queued at the start of this cycle
+     * has been executed, or the time budget for this cycle has been consumed. Work submitted while draining,
+     * including by the drained tasks themselves, is left for the next cycle. At least one task will always
+     * be executed if any are available, ensuring progress is made even under an undersized budget.
+     *
+     * <p>This should only ever be invoked from the main thread, once per tick.</p>
+     *
+     * @return The number of tasks executed during this cycle
+     */
+    public int drain() {
+        long start = System.nanoTime();
+        long deadline = start + this.budget;
+        int limit = this.size.get();
+        int drained = 0;
+        boolean exceeded = false;
+
+        Runnable task;
+        while(drained < limit && (task = this.queue.poll()) != null) {
+            this.size.decrementAndGet();
+            drained++;
+
+            try {
+                task.run();
+            } catch (Throwable e) {
+                this.logger.warn("Batched main thread task threw an uncaught exception", e);
+            }
+
+            if(System.nanoTime() - deadline >= 0) {
+                exceeded = drained < limit;
+                break;
+            }
+        }
+
+        this.lastDrained = drained;
+        this.lastBacklog = this.size.get();
+        this.lastDuration = System.nanoTime() - start;
+        this.totalDrained += drained;
+        if(exceeded) {
+            this.overflowedTicks++;
+        }
+
+        return drained;
+    }
+
+    /**
+     * Indicates the number of tasks currently waiting to be drained.
+     *
+     * @return The number of queued tasks
+     */
+    public int pending() {
+        return this.size.get();
+    }
+
+    /**
+     * Captures the statistics of the most recent drain cycle, alongside totals accumulated
+     * over the lifetime of this executor.
+     *
+     * @return A snapshot of the statistics of this executor
+     */
+    public BatchStatistics statistics() {
+        return new BatchStatistics(
+                this.lastDrained,
+                this.lastBacklog,
+                Duration.ofNanos(this.lastDuration),
+                this.totalDrained,
+                this.overflowedTicks,
+                this.size.get()
+        );
+    }
+
+    /**
+     * Represents a snapshot of the statistics of a {@link BatchingExecutor}.
+     *
+     * @param drained The number of tasks executed during the last drain cycle
+     * @param overflow The number of tasks carried over to the next tick after the last drain cycle, including
+     *                 those submitted while it was in progress
+     * @param duration The time consumed by the last drain cycle
+     * @param total The total number of tasks executed by the executor
+     * @param overflowedTicks The number of drain cycles whose budget was consumed before every task queued at
+     *                        the start of the cycle had been executed
+     * @param pending The number of tasks queued at the time of this snapshot
+     */
+    public record BatchStatistics(int drained, int overflow, Duration duration, long total, long overflowedTicks, int pending) {}
+
+}
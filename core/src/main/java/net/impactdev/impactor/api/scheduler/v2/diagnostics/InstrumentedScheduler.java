@@ -0,0 +1,140 @@
+/*
+ * This file is part of Impactor, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2018-2022 NickImpact
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package net.impactdev.impactor.api.scheduler.v2.diagnostics;
+
+import net.impactdev.impactor.api.platform.plugins.PluginMetadata;
+import net.impactdev.impactor.api.scheduler.SchedulerTask;
+import net.impactdev.impactor.api.scheduler.Ticks;
+import net.impactdev.impactor.api.scheduler.v2.Scheduler;
+import net.kyori.adventure.key.Key;
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link Scheduler} decorator which records the execution of every submitted task with a {@link TaskProfiler},
+ * attributing each to the plugin which scheduled it. Instances are typically acquired via
+ * {@link Scheduler#instrument(PluginMetadata)}.
+ *
+ * @since 5.2.0
+ */
+public final class InstrumentedScheduler implements Scheduler {
+
+    private final Scheduler delegate;
+    private final PluginMetadata owner;
+    private final TaskProfiler profiler;
+    private final Executor executor;
+
+    public InstrumentedScheduler(final @NotNull Scheduler delegate, final @Nullable PluginMetadata owner, final @NotNull TaskProfiler profiler) {
+        this.delegate = delegate;
+        this.owner = owner;
+        this.profiler = profiler;
+        this.executor = this::publish;
+    }
+
+    /**
+     * Provides the scheduler this instance decorates.
+     *
+     * @return The decorated scheduler
+     */
+    public Scheduler delegate() {
+        return this.delegate;
+    }
+
+    @Override
+    public Key key() {
+        return this.delegate.key();
+    }
+
+    @Override
+    public Executor executor() {
+        return this.executor;
+    }
+
+    @Override
+    public boolean onThread() {
+        return this.delegate.onThread();
+    }
+
+    @Override
+    public void publish(@NotNull Runnable action) {
+        this.delegate.publish(this.wrap(action, 0, 0));
+    }
+
+    @Override
+    public void inline(@NotNull Runnable action) {
+        this.delegate.inline(this.wrap(action, 0, 0));
+    }
+
+    @Override
+    public SchedulerTask delayed(@NotNull Runnable action, @NotNull Ticks ticks) {
+        return this.delegate.delayed(this.wrap(action, nanos(ticks), 0), ticks);
+    }
+
+    @Override
+    public SchedulerTask delayed(@NotNull Runnable action, @NonNegative long delay, @NotNull TimeUnit unit) {
+        return this.delegate.delayed(this.wrap(action, unit.toNanos(delay), 0), delay, unit);
+    }
+
+    @Override
+    public SchedulerTask repeating(@NotNull Runnable action, @NotNull Ticks ticks) {
+        return this.delegate.repeating(this.wrap(action, nanos(ticks), nanos(ticks)), ticks);
+    }
+
+    @Override
+    public SchedulerTask repeating(@NotNull Runnable action, @NonNegative long interval, @NotNull TimeUnit unit) {
+        return this.delegate.repeating(this.wrap(action, unit.toNanos(interval), unit.toNanos(interval)), interval, unit);
+    }
+
+    @Override
+    public SchedulerTask delayedAndRepeating(@NotNull Runnable action, @NotNull Ticks delay, @NotNull Ticks interval) {
+        return this.delegate.delayedAndRepeating(this.wrap(action, nanos(delay), nanos(interval)), delay, interval);
+    }
+
+    @Override
+    public SchedulerTask delayedAndRepeating(@NotNull Runnable action, @NonNegative long delay, @NonNegative long interval, @NotNull TimeUnit unit) {
+        return this.delegate.delayedAndRepeating(this.wrap(action, unit.toNanos(delay), unit.toNanos(interval)), delay, interval, unit);
+    }
+
+    /**
+     * Instrumented schedulers are views over a shared scheduler, and are therefore unable to shut it down.
+     * Owners of the decorated scheduler should shut it down via {@link #delegate()} instead.
+     */
+    @Override
+    public void shutdown() {}
+
+    private Runnable wrap(Runnable action, long delay, long interval) {
+        return this.profiler.wrap(this.owner, this.delegate.key(), action, System.nanoTime() + delay, interval);
+    }
+
+    private static long nanos(Ticks ticks) {
+        return ticks.expectedDuration().toNanos();
+    }
+
+}
@@ -0,0 +1,318 @@
+/*
+ * This file is part of Impactor, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2018-2022 NickImpact
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package net.impactdev.impactor.api.scheduler.v2.diagnostics;
+
+import com.google.common.base.Preconditions;
+import net.impactdev.impactor.api.logging.Log4jLogger;
+import net.impactdev.impactor.api.logging.PluginLogger;
+import net.impactdev.impactor.api.platform.plugins.PluginMetadata;
+import net.impactdev.impactor.api.scheduler.SchedulerTask;
+import net.impactdev.impactor.api.scheduler.v2.Scheduler;
+import net.impactdev.impactor.api.utility.printing.PrettyPrinter;
+import net.kyori.adventure.key.Key;
+import org.apache.logging.log4j.LogManager;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Collects execution statistics for tasks submitted through an {@link InstrumentedScheduler}. Statistics
+ * are aggregated per owning plugin, scheduler, and action type, such that thousands of per-player tasks
+ * sharing the same implementation are represented by a single entry.
+ *
+ * <p>Any execution exceeding the configured threshold is reported to the profiler's logger, alongside a
+ * stack sample of the executing thread. Stack samples are taken by {@link #sample()}, which should be invoked
+ * periodically while the profiler is active, typically via {@link #watch(Scheduler)}. Reports are rate-limited
+ * per task, such that a task which is consistently slow does not flood the console.</p>
+ *
+ * @since 5.2.0
+ */
+public final class TaskProfiler {
+
+    private static final TaskProfiler GLOBAL = new TaskProfiler(
+            new Log4jLogger(LogManager.getLogger("Impactor (Tasks)")),
+            Duration.ofMillis(50),
+            Duration.ofMinutes(1)
+    );
+
+    /**
+     * Provides the shared profiler used by {@link Scheduler#instrument(PluginMetadata)}, and is the intended
+     * source of information for task diagnostics.
+     *
+     * @return The globally shared task profiler
+     */
+    public static TaskProfiler global() {
+        return GLOBAL;
+    }
+
+    private final PluginLogger logger;
+    private final Map<Identity, Entry> entries = new ConcurrentHashMap<>();
+    private final Set<Execution> running = ConcurrentHashMap.newKeySet();
+
+    private volatile long threshold;
+    private volatile long cooldown;
+
+    /**
+     * Creates a new task profiler.
+     *
+     * @param logger The logger slow task reports will be written to
+     * @param threshold The execution time above which a task is considered slow
+     * @param cooldown The minimum amount of time between two slow task reports for the same task
+     */
+    public TaskProfiler(final @NotNull PluginLogger logger, final @NotNull Duration threshold, final @NotNull Duration cooldown) {
+        this.logger = logger;
+        this.threshold(threshold);
+        this.cooldown = cooldown.toNanos();
+    }
+
+    /**
+     * Updates the execution time above which a task is considered slow.
+     *
+     * @param threshold The new threshold
+     */
+    public void threshold(final @NotNull Duration threshold) {
+        Preconditions.checkArgument(!threshold.isNegative(), "Threshold must be non-negative");
+        this.threshold = threshold.toNanos();
+    }
+
+    /**
+     * Schedules {@link #sample()} to run once per tick on the given scheduler. The scheduler should not
+     * be one whose threads are being profiled, or samples may be delayed by the very tasks being captured.
+     *
+     * @param scheduler The scheduler to perform sampling on
+     * @return A task which can be used to stop sampling
+     */
+    public SchedulerTask watch(final @NotNull Scheduler scheduler) {
+        return scheduler.repeating(this::sample, 50, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Captures a stack sample for every in-flight execution which has exceeded the slow task threshold,
+     * and has yet to be sampled. These samples are attached to the slow task report generated once the
+     * execution completes.
+     */
+    public void sample() {
+        long now = System.nanoTime();
+        for(Execution execution : this.running) {
+            if(execution.sample == null && now - execution.started > this.threshold) {
+                execution.sample = execution.thread.getStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Provides a snapshot of all statistics currently tracked by this profiler, sorted by their
+     * maximum execution time in descending order.
+     *
+     * @return A list of statistics for all profiled tasks
+     */
+    public List<TaskStatistics> statistics() {
+        return this.entries.entrySet().stream()
+                .filter(entry -> entry.getValue().runtime.count() > 0)
+                .map(entry -> entry.getValue().snapshot(entry.getKey()))
+                .sorted(Comparator.comparing(TaskStatistics::max).reversed())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Provides a snapshot of the statistics for all tasks scheduled by the given plugin.
+     *
+     * @param owner The plugin to filter on
+     * @return A list of statistics for the tasks scheduled by the given plugin
+     */
+    public List<TaskStatistics> statistics(final @NotNull PluginMetadata owner) {
+        return this.statistics().stream()
+                .filter(statistics -> statistics.owner() != null && statistics.owner().id().equals(owner.id()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Clears all statistics gathered by this profiler. Entries are reset in place rather than discarded,
+     * as tasks which are already scheduled continue to record into the entry they were wrapped with.
+     */
+    public void reset() {
+        for(Entry entry : this.entries.values()) {
+            entry.reset();
+        }
+    }
+
+    /**
+     * Wraps the given action such that each of its executions is recorded by this profiler.
+     *
+     * @param owner The plugin responsible for the action, if known
+     * @param scheduler The key of the scheduler the action is being submitted to
+     * @param action The action to profile
+     * @param due The {@link System#nanoTime()} at which the first execution is due
+     * @param interval The interval between executions in nanoseconds, or 0 if the action only runs once
+     * @return A runnable which records executions of the given action
+     */
+    Runnable wrap(@Nullable PluginMetadata owner, Key scheduler, Runnable action, long due, long interval) {
+        Identity identity = new Identity(owner, scheduler, action.getClass().getName());
+        Entry entry = this.entries.computeIfAbsent(identity, key -> new Entry());
+        return new ProfiledRunnable(identity, entry, action, due, interval);
+    }
+
+    private void report(Identity identity, Entry entry, long duration, StackTraceElement @Nullable [] sample) {
+        long now = System.nanoTime();
+        long last = entry.reported.get();
+        if(last != 0 && now - last < this.cooldown) {
+            return;
+        }
+        if(!entry.reported.compareAndSet(last, now)) {
+            return;
+        }
+
+        PrettyPrinter printer = new PrettyPrinter(80);
+        printer.title("Slow Task Detected");
+        printer.kv("Duration", TaskStatistics.format(Duration.ofNanos(duration)));
+        printer.kv("Threshold", TaskStatistics.format(Duration.ofNanos(this.threshold)));
+        printer.add(entry.snapshot(identity));
+        printer.hr('-');
+
+        if(sample != null) {
+            printer.add("Stack sample captured while the task was running:");
+            printer.add(sample, 2);
+        } else {
+            printer.add("No stack sample was captured for this execution.");
+        }
+
+        printer.log(this.logger, PrettyPrinter.Level.WARNING);
+    }
+
+    private record Identity(@Nullable PluginMetadata owner, Key scheduler, String task) {
+
+        @Override
+        public boolean equals(Object other) {
+            if(this == other) {
+                return true;
+            }
+            if(!(other instanceof Identity identity)) {
+                return false;
+            }
+
+            return Objects.equals(this.owner != null ? this.owner.id() : null, identity.owner != null ? identity.owner.id() : null)
+                    && this.scheduler.equals(identity.scheduler)
+                    && this.task.equals(identity.task);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.owner != null ? this.owner.id() : null, this.scheduler, this.task);
+        }
+
+    }
+
+    private static final class Entry {
+
+        private final LatencyHistogram runtime = new LatencyHistogram();
+        private final LatencyHistogram wait = new LatencyHistogram();
+        private final AtomicLong reported = new AtomicLong();
+
+        private void reset() {
+            this.runtime.reset();
+            this.wait.reset();
+            this.reported.set(0);
+        }
+
+        private TaskStatistics snapshot(Identity identity) {
+            return new TaskStatistics(
+                    identity.owner(),
+                    identity.scheduler(),
+                    identity.task(),
+                    this.runtime.count(),
+                    Duration.ofNanos(this.runtime.percentile(0.5)),
+                    Duration.ofNanos(this.runtime.percentile(0.99)),
+                    Duration.ofNanos(this.runtime.max()),
+                    Duration.ofNanos(this.wait.mean()),
+                    Duration.ofNanos(this.wait.max())
+            );
+        }
+
+    }
+
+    private static final class Execution {
+
+        private final Thread thread;
+        private final long started;
+        private volatile StackTraceElement[] sample;
+
+        private Execution(Thread thread, long started) {
+            this.thread = thread;
+            this.started = started;
+        }
+
+    }
+
+    private final class ProfiledRunnable implements Runnable {
+
+        private final Identity identity;
+        private final Entry entry;
+        private final Runnable action;
+        private final long interval;
+        private long due;
+
+        private ProfiledRunnable(Identity identity, Entry entry, Runnable action, long due, long interval) {
+            this.identity = identity;
+            this.entry = entry;
+            this.action = action;
+            this.due = due;
+            this.interval = interval;
+        }
+
+        @Override
+        public void run() {
+            long start = System.nanoTime();
+            this.entry.wait.record(start - this.due);
+            this.due += this.interval;
+
+            Execution execution = new Execution(Thread.currentThread(), start);
+            TaskProfiler.this.running.add(execution);
+            try {
+                this.action.run();
+            } finally {
+                TaskProfiler.this.running.remove(execution);
+
+                long duration = System.nanoTime() - start;
+                this.entry.runtime.record(duration);
+                if(duration > TaskProfiler.this.threshold) {
+                    TaskProfiler.this.report(this.identity, this.entry, duration, execution.sample);
+                }
+            }
+        }
+
+    }
+
+}
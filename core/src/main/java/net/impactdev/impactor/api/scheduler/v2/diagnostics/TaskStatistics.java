@@ -0,0 +1,79 @@
+/*
+ * This file is part of Impactor, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2018-2022 NickImpact
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package net.impactdev.impactor.api.scheduler.v2.diagnostics;
+
+import net.impactdev.impactor.api.platform.plugins.PluginMetadata;
+import net.impactdev.impactor.api.utility.printing.PrettyPrinter;
+import net.kyori.adventure.key.Key;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+
+/**
+ * Represents a snapshot of the execution statistics gathered for a task, or set of tasks sharing the same
+ * owner, scheduler, and action type, by a {@link TaskProfiler}.
+ *
+ * @param owner The plugin which scheduled the task, if known
+ * @param scheduler The key of the scheduler the task was submitted to
+ * @param task A description of the task, derived from the type of the scheduled action
+ * @param invocations The number of times the task has been executed
+ * @param p50 The median execution time of the task
+ * @param p99 The 99th percentile execution time of the task
+ * @param max The longest recorded execution time of the task
+ * @param queueWait The average delay between when the task was due and when it actually started executing
+ * @param maxQueueWait The longest recorded delay between when the task was due and when it started executing
+ * @since 5.2.0
+ */
+public record TaskStatistics(
+        @Nullable PluginMetadata owner,
+        Key scheduler,
+        String task,
+        long invocations,
+        Duration p50,
+        Duration p99,
+        Duration max,
+        Duration queueWait,
+        Duration maxQueueWait
+) implements PrettyPrinter.IPrettyPrintable {
+
+    @Override
+    public void print(PrettyPrinter printer) {
+        printer.kv("Owner", this.owner != null ? this.owner.id() : "Unknown");
+        printer.kv("Scheduler", this.scheduler.asString());
+        printer.kv("Task", this.task);
+        printer.kv("Invocations", this.invocations);
+        printer.kv("Run Time (p50)", format(this.p50));
+        printer.kv("Run Time (p99)", format(this.p99));
+        printer.kv("Run Time (max)", format(this.max));
+        printer.kv("Queue Wait (avg)", format(this.queueWait));
+        printer.kv("Queue Wait (max)", format(this.maxQueueWait));
+    }
+
+    static String format(Duration duration) {
+        return String.format("%.3f ms", duration.toNanos() / 1_000_000.0);
+    }
+
+}
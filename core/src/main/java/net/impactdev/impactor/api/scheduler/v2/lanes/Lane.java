@@ -0,0 +1,74 @@
+/*
+ * This file is part of Impactor, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2018-2022 NickImpact
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package net.impactdev.impactor.api.scheduler.v2.lanes;
+
+import java.time.Duration;
+
+/**
+ * Represents the priority of an action submitted to a {@link LaneScheduler}. Lanes are listed in descending
+ * order of priority, such that a worker always prefers the first lane with queued work.
+ *
+ * <p>To prevent lower priority work from being starved indefinitely under sustained load, each lane other
+ * than the first specifies the longest time its oldest action may wait before it is served ahead of higher
+ * priority lanes.</p>
+ *
+ * @since 5.2.0
+ */
+public enum Lane {
+
+    /**
+     * Work performed in direct response to a player, such as handling a UI click or an economy transfer.
+     */
+    INTERACTIVE(Duration.ZERO),
+
+    /**
+     * General purpose asynchronous work. This is the lane used when no lane is otherwise specified.
+     */
+    NORMAL(Duration.ofMillis(250)),
+
+    /**
+     * Throughput oriented work for which latency is of little concern, such as scanning every account
+     * of a currency, or downloading translations.
+     */
+    BULK(Duration.ofSeconds(1));
+
+    private final Duration starvation;
+
+    Lane(Duration starvation) {
+        this.starvation = starvation;
+    }
+
+    /**
+     * Specifies the longest time the oldest action queued within this lane may wait before it is served
+     * ahead of any higher priority lane.
+     *
+     * @return The starvation bound of this lane
+     */
+    public Duration starvation() {
+        return this.starvation;
+    }
+
+}
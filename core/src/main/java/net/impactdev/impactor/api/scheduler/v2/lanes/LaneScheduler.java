@@ -0,0 +1,509 @@
+/*
+ * This file is part of Impactor, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2018-2022 NickImpact
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package net.impactdev.impactor.api.scheduler.v2.lanes;
+
+import com.google.common.base.Preconditions;
+import net.impactdev.impactor.api.logging.PluginLogger;
+import net.impactdev.impactor.api.scheduler.SchedulerTask;
+import net.impactdev.impactor.api.scheduler.Ticks;
+import net.impactdev.impactor.api.scheduler.v2.Scheduler;
+import net.kyori.adventure.key.Key;
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A {@link Scheduler} which separates its work into a set of {@link Lane lanes} of differing priority, all served
+ * by a shared set of workers. This allows latency sensitive work, such as handling a UI click, to bypass any
+ * backlog of bulk work rather than waiting behind it in a single FIFO queue.
+ *
+ * <p>Actions submitted through the standard {@link Scheduler} methods are placed in the {@link Lane#NORMAL normal}
+ * lane. A view targeting any other lane can be acquired via {@link #lane(Lane)}. Actions may additionally specify
+ * a deadline via {@link #publish(Lane, Runnable, Duration)}, after which the action is considered stale and will be
+ * discarded rather than executed.</p>
+ *
+ * <p>Workers always serve the highest priority lane with queued work, unless the oldest action of a lower
+ * priority lane has waited beyond that lane's {@link Lane#starvation() starvation bound}, in which case it is
+ * served first.</p>
+ *
+ * @since 5.2.0
+ */
+public final class LaneScheduler implements Scheduler {
+
+    public static final Key KEY = Key.key("impactor", "lanes");
+
+    private static final Lane[] LANES = Lane.values();
+    private static final String THREAD_NAME = "Impactor Lane Scheduler";
+    private static final String WORKER_PREFIX = "Impactor Lane Worker - ";
+
+    private final Key key;
+    private final PluginLogger logger;
+    private final Map<Lane, LaneQueue> queues = new EnumMap<>(Lane.class);
+    private final Semaphore available = new Semaphore(0);
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Lock lock = new ReentrantLock();
+    private final Condition drained = this.lock.newCondition();
+
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final Thread[] workers;
+    private final Executor executor = this::publish;
+
+    private volatile boolean running = true;
+    private volatile boolean draining;
+
+    /**
+     * Creates a new lane scheduler, served by the given number of worker threads.
+     *
+     * @param key The key identifying this scheduler
+     * @param workers The number of threads serving the lanes of this scheduler
+     * @param logger The logger used to report uncaught exceptions and shutdown issues
+     */
+    public LaneScheduler(final @NotNull Key key, final int workers, final @NotNull PluginLogger logger) {
+        Preconditions.checkArgument(workers > 0, "Worker count must be positive");
+        this.key = key;
+        this.logger = logger;
+        for(Lane lane : LANES) {
+            this.queues.put(lane, new LaneQueue());
+        }
+
+        this.scheduler = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = Executors.defaultThreadFactory().newThread(r);
+            thread.setName(THREAD_NAME);
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.setRemoveOnCancelPolicy(true);
+        this.scheduler.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+
+        this.workers = new Thread[workers];
+        for(int i = 0; i < workers; i++) {
+            Thread thread = new Thread(this::work, WORKER_PREFIX + i);
+            thread.setDaemon(true);
+            this.workers[i] = thread;
+            thread.start();
+        }
+    }
+
+    /**
+     * Provides a view of this scheduler, where all actions submitted through the view are placed within
+     * the given lane.
+     *
+     * @param lane The lane actions submitted through the view should be placed in
+     * @return A view of this scheduler targeting the given lane
+     */
+    public Scheduler lane(final @NotNull Lane lane) {
+        Preconditions.checkNotNull(lane, "lane");
+        return lane == Lane.NORMAL ? this : new LaneView(lane);
+    }
+
+    /**
+     * Submits an action for execution within the given lane.
+     *
+     * @param lane The lane to place the action in
+     * @param action The action to execute
+     */
+    public void publish(final @NotNull Lane lane, final @NotNull Runnable action) {
+        this.enqueue(lane, action, false, 0);
+    }
+
+    /**
+     * Submits an action for execution within the given lane, which must begin executing within the
+     * given deadline. Should the action still be queued once the deadline has elapsed, it is discarded
+     * and recorded as expired within the lane's statistics. Deadlines too large to be represented in
+     * nanoseconds are saturated, and as such effectively never elapse.
+     *
+     * @param lane The lane to place the action in
+     * @param action The action to execute
+     * @param deadline The time from now by which the action must have started execution
+     */
+    public void publish(final @NotNull Lane lane, final @NotNull Runnable action, final @NotNull Duration deadline) {
+        Preconditions.checkArgument(!deadline.isNegative(), "Deadline must not be negative");
+        this.enqueue(lane, action, true, nanos(deadline));
+    }
+
+    /**
+     * Provides a snapshot of the statistics of the given lane.
+     *
+     * @param lane The lane to report on
+     * @return A snapshot of the lane's statistics
+     */
+    public LaneStatistics statistics(final @NotNull Lane lane) {
+        LaneQueue queue = this.queues.get(lane);
+        Entry head = queue.entries.peek();
+        Duration wait = head == null ? Duration.ZERO : Duration.ofNanos(System.nanoTime() - head.enqueued);
+        return new LaneStatistics(
+                lane,
+                queue.depth.get(),
+                wait,
+                queue.submitted.sum(),
+                queue.executed.sum(),
+                queue.expired.sum(),
+                queue.promoted.sum()
+        );
+    }
+
+    /**
+     * Provides a snapshot of the statistics of every lane of this scheduler.
+     *
+     * @return A snapshot of every lane's statistics
+     */
+    public Map<Lane, LaneStatistics> statistics() {
+        Map<Lane, LaneStatistics> result = new EnumMap<>(Lane.class);
+        for(Lane lane : LANES) {
+            result.put(lane, this.statistics(lane));
+        }
+
+        return result;
+    }
+
+    @Override
+    public Key key() {
+        return this.key;
+    }
+
+    @Override
+    public Executor executor() {
+        return this.executor;
+    }
+
+    @Override
+    public boolean onThread() {
+        Thread current = Thread.currentThread();
+        for(Thread worker : this.workers) {
+            if(worker == current) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    public void publish(@NotNull Runnable action) {
+        this.publish(Lane.NORMAL, action);
+    }
+
+    @Override
+    public SchedulerTask delayed(@NotNull Runnable action, @NotNull Ticks ticks) {
+        return this.delayed(Lane.NORMAL, action, ticks.expectedDuration().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public SchedulerTask delayed(@NotNull Runnable action, @NonNegative long delay, @NotNull TimeUnit unit) {
+        return this.delayed(Lane.NORMAL, action, delay, unit);
+    }
+
+    @Override
+    public SchedulerTask repeating(@NotNull Runnable action, @NotNull Ticks ticks) {
+        long interval = ticks.expectedDuration().toMillis();
+        return this.delayedAndRepeating(Lane.NORMAL, action, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public SchedulerTask repeating(@NotNull Runnable action, @NonNegative long interval, @NotNull TimeUnit unit) {
+        return this.delayedAndRepeating(Lane.NORMAL, action, interval, interval, unit);
+    }
+
+    @Override
+    public SchedulerTask delayedAndRepeating(@NotNull Runnable action, @NotNull Ticks delay, @NotNull Ticks interval) {
+        return this.delayedAndRepeating(Lane.NORMAL, action, delay.expectedDuration().toMillis(), interval.expectedDuration().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public SchedulerTask delayedAndRepeating(@NotNull Runnable action, @NonNegative long delay, @NonNegative long interval, @NotNull TimeUnit unit) {
+        return this.delayedAndRepeating(Lane.NORMAL, action, delay, interval, unit);
+    }
+
+    @Override
+    public void shutdown() {
+        this.scheduler.shutdown();
+
+        this.draining = true;
+        this.lock.lock();
+        try {
+            long remaining = TimeUnit.SECONDS.toNanos(10);
+            while(this.pending.get() > 0 && remaining > 0) {
+                remaining = this.drained.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            this.lock.unlock();
+        }
+
+        if(this.pending.get() > 0) {
+            this.logger.severe("Timed out waiting for queued tasks of scheduler " + this.key.asString() + " to complete");
+        }
+
+        this.running = false;
+        for(Thread worker : this.workers) {
+            worker.interrupt();
+        }
+    }
+
+    private SchedulerTask delayed(Lane lane, Runnable action, long delay, TimeUnit unit) {
+        ScheduledFuture<?> future = this.scheduler.schedule(() -> this.publish(lane, action), delay, unit);
+        return () -> future.cancel(false);
+    }
+
+    private SchedulerTask delayedAndRepeating(Lane lane, Runnable action, long delay, long interval, TimeUnit unit) {
+        ScheduledFuture<?> future = this.scheduler.scheduleAtFixedRate(() -> this.publish(lane, action), delay, interval, unit);
+        return () -> future.cancel(false);
+    }
+
+    private void enqueue(Lane lane, Runnable action, boolean bounded, long deadline) {
+        Preconditions.checkNotNull(lane, "lane");
+        Preconditions.checkNotNull(action, "action");
+        Preconditions.checkState(this.running, "Scheduler has been shutdown");
+
+        LaneQueue queue = this.queues.get(lane);
+        this.pending.incrementAndGet();
+        queue.entries.offer(new Entry(action, System.nanoTime(), bounded, deadline));
+        queue.depth.incrementAndGet();
+        queue.submitted.increment();
+        this.available.release();
+    }
+
+    private void work() {
+        while(this.running) {
+            try {
+                this.available.acquire();
+            } catch (InterruptedException e) {
+                continue;
+            }
+
+            Entry entry;
+            LaneQueue queue;
+            do {
+                queue = this.select();
+                entry = queue == null ? null : queue.entries.poll();
+            } while(entry == null);
+
+            queue.depth.decrementAndGet();
+            try {
+                if(entry.expired(System.nanoTime())) {
+                    queue.expired.increment();
+                    continue;
+                }
+
+                try {
+                    entry.action.run();
+                } catch (Throwable e) {
+                    this.logger.warn("Task on scheduler " + this.key.asString() + " threw an uncaught exception", e);
+                } finally {
+                    queue.executed.increment();
+                }
+            } finally {
+                this.complete();
+            }
+        }
+    }
+
+    /**
+     * Marks a dequeued entry as completed, waking a pending {@link #shutdown()} once every
+     * queued entry has completed.
+     */
+    private void complete() {
+        if(this.pending.decrementAndGet() == 0 && this.draining) {
+            this.lock.lock();
+            try {
+                this.drained.signalAll();
+            } finally {
+                this.lock.unlock();
+            }
+        }
+    }
+
+    private static long nanos(Duration duration) {
+        try {
+            return duration.toNanos();
+        } catch (ArithmeticException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Selects the lane a worker should next be served from. A permit has already been acquired by the
+     * calling worker, so at least one lane is guaranteed to hold an entry reserved for it, though a
+     * concurrent worker may race it to the head of any particular lane.
+     */
+    private LaneQueue select() {
+        long now = System.nanoTime();
+        LaneQueue starved = null;
+        long overdue = 0;
+        LaneQueue first = null;
+
+        for(Lane lane : LANES) {
+            LaneQueue queue = this.queues.get(lane);
+            Entry head = queue.entries.peek();
+            if(head == null) {
+                continue;
+            }
+
+            if(first == null) {
+                first = queue;
+                continue;
+            }
+
+            long late = now - head.enqueued - lane.starvation().toNanos();
+            if(late > overdue) {
+                overdue = late;
+                starved = queue;
+            }
+        }
+
+        if(starved != null) {
+            starved.promoted.increment();
+            return starved;
+        }
+
+        return first;
+    }
+
+    /**
+     * A queued action. The deadline of a bounded entry is held relative to the time it was enqueued,
+     * such that checking for expiry only ever compares elapsed time, and cannot overflow.
+     */
+    private record Entry(Runnable action, long enqueued, boolean bounded, long deadline) {
+
+        private boolean expired(long now) {
+            return this.bounded && now - this.enqueued > this.deadline;
+        }
+
+    }
+
+    private static final class LaneQueue {
+        private final Queue<Entry> entries = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger depth = new AtomicInteger();
+        private final LongAdder submitted = new LongAdder();
+        private final LongAdder executed = new LongAdder();
+        private final LongAdder expired = new LongAdder();
+        private final LongAdder promoted = new LongAdder();
+    }
+
+    private final class LaneView implements Scheduler {
+
+        private final Lane lane;
+        private final Executor executor = this::publish;
+
+        private LaneView(Lane lane) {
+            this.lane = lane;
+        }
+
+        @Override
+        public Key key() {
+            return LaneScheduler.this.key;
+        }
+
+        @Override
+        public Executor executor() {
+            return this.executor;
+        }
+
+        @Override
+        public boolean onThread() {
+            return LaneScheduler.this.onThread();
+        }
+
+        @Override
+        public void inline(@NotNull Runnable action) {
+            LaneScheduler.this.inline(action);
+        }
+
+        @Override
+        public void publish(@NotNull Runnable action) {
+            LaneScheduler.this.publish(this.lane, action);
+        }
+
+        @Override
+        public SchedulerTask delayed(@NotNull Runnable action, @NotNull Ticks ticks) {
+            return LaneScheduler.this.delayed(this.lane, action, ticks.expectedDuration().toMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public SchedulerTask delayed(@NotNull Runnable action, @NonNegative long delay, @NotNull TimeUnit unit) {
+            return LaneScheduler.this.delayed(this.lane, action, delay, unit);
+        }
+
+        @Override
+        public SchedulerTask repeating(@NotNull Runnable action, @NotNull Ticks ticks) {
+            long interval = ticks.expectedDuration().toMillis();
+            return LaneScheduler.this.delayedAndRepeating(this.lane, action, interval, interval, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public SchedulerTask repeating(@NotNull Runnable action, @NonNegative long interval, @NotNull TimeUnit unit) {
+            return LaneScheduler.this.delayedAndRepeating(this.lane, action, interval, interval, unit);
+        }
+
+        @Override
+        public SchedulerTask delayedAndRepeating(@NotNull Runnable action, @NotNull Ticks delay, @NotNull Ticks interval) {
+            return LaneScheduler.this.delayedAndRepeating(this.lane, action, delay.expectedDuration().toMillis(), interval.expectedDuration().toMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public SchedulerTask delayedAndRepeating(@NotNull Runnable action, @NonNegative long delay, @NonNegative long interval, @NotNull TimeUnit unit) {
+            return LaneScheduler.this.delayedAndRepeating(this.lane, action, delay, interval, unit);
+        }
+
+        /**
+         * Views share the workers of their parent scheduler, and are therefore unable to shut them down.
+         */
+        @Override
+        public void shutdown() {}
+
+    }
+
+    /**
+     * Represents a snapshot of the statistics of a single lane of a {@link LaneScheduler}.
+     *
+     * @param lane The lane this snapshot describes
+     * @param depth The number of actions queued within the lane
+     * @param oldest The time the oldest queued action has been waiting
+     * @param submitted The total number of actions submitted to the lane
+     * @param executed The total number of actions executed from the lane
+     * @param expired The total number of actions discarded after their deadline elapsed
+     * @param promoted The number of times the lane was served ahead of a higher priority lane due to starvation
+     */
+    public record LaneStatistics(Lane lane, int depth, Duration oldest, long submitted, long executed, long expired, long promoted) {}
+
+}
@@ -0,0 +1,450 @@
+/*
+ * This file is part of Impactor, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2018-2022 NickImpact
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package net.impactdev.impactor.api.scheduler.v2.simulation;
+
+import com.google.common.base.Preconditions;
+import net.impactdev.impactor.api.logging.PluginLogger;
+import net.impactdev.impactor.api.scheduler.SchedulerTask;
+import net.impactdev.impactor.api.scheduler.Ticks;
+import net.impactdev.impactor.api.scheduler.v2.Scheduler;
+import net.kyori.adventure.key.Key;
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link Scheduler} driven by a virtual clock, which only moves forward when explicitly
+ * {@link #advance(long) advanced}. This allows tick based systems, such as scoreboard updaters or paginated UI
+ * refresh loops, to be exercised deterministically and far faster than real time, where a full day of server
+ * ticks can be simulated within seconds.
+ *
+ * <p>Advancing the clock skips directly over ticks with no due work, so the cost of an advance is bound by the
+ * amount of work executed rather than the number of ticks elapsed. Due tasks execute in the order they became
+ * due, with ties broken by the order in which they were scheduled. By default, tasks run on the thread advancing
+ * the clock. If an executor is supplied, the tasks due on a tick are instead dispatched to it, and the clock
+ * waits for all of them to complete before moving on to the next tick.</p>
+ *
+ * <p>Durations expressed through a {@link TimeUnit} are converted into ticks of 50 milliseconds, rounding up.
+ * Delays and intervals shorter than a single tick are treated as one tick, such that a repeating task with a
+ * zero interval runs on every tick.
+ * The CPU time consumed by tasks is aggregated into windows of a configurable number of ticks, made available
+ * via {@link #windows()}. Only a bounded number of the most recent windows are retained, such that long
+ * simulations do not accumulate statistics without limit.</p>
+ *
+ * <p>The clock may only be advanced by a single thread at a time, and concurrent attempts to advance it are
+ * rejected. Tasks may be scheduled and cancelled from any thread.</p>
+ *
+ * @since 5.2.0
+ */
+public final class VirtualClockScheduler implements Scheduler {
+
+    public static final Key KEY = Key.key("impactor", "virtual_clock");
+
+    /**
+     * The number of windows retained when no retention is otherwise specified.
+     */
+    public static final int DEFAULT_RETENTION = 3600;
+
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final Key key;
+    private final PluginLogger logger;
+    private final @Nullable Executor runner;
+    private final long window;
+    private final int retention;
+
+    private final Object lock = new Object();
+    private final PriorityQueue<Entry> queue = new PriorityQueue<>(Comparator.comparingLong(Entry::due).thenComparingLong(Entry::sequence));
+    private long sequence;
+    private boolean shutdown;
+
+    private final Executor executor = this::publish;
+
+    // Clock state, owned by the thread advancing the clock
+    private volatile long tick;
+    private final AtomicBoolean advancing = new AtomicBoolean();
+    private long windowIndex;
+    private final LongAdder windowExecuted = new LongAdder();
+    private final LongAdder windowCpu = new LongAdder();
+    private final Deque<WindowStatistics> windows = new ArrayDeque<>();
+
+    /**
+     * Creates a new virtual clock scheduler which runs due tasks on the thread advancing the clock, and
+     * aggregates statistics into windows of a single second of ticks.
+     *
+     * @param key The key identifying this scheduler
+     * @param logger The logger used to report uncaught exceptions
+     */
+    public VirtualClockScheduler(final @NotNull Key key, final @NotNull PluginLogger logger) {
+        this(key, null, 20, logger);
+    }
+
+    /**
+     * Creates a new virtual clock scheduler.
+     *
+     * @param key The key identifying this scheduler
+     * @param runner The executor due tasks should be dispatched to, or null to run them on the thread
+     *               advancing the clock
+     * @param window The number of ticks making up a single statistics window
+     * @param logger The logger used to report uncaught exceptions
+     */
+    public VirtualClockScheduler(final @NotNull Key key, final @Nullable Executor runner, final long window, final @NotNull PluginLogger logger) {
+        this(key, runner, window, DEFAULT_RETENTION, logger);
+    }
+
+    /**
+     * Creates a new virtual clock scheduler.
+     *
+     * @param key The key identifying this scheduler
+     * @param runner The executor due tasks should be dispatched to, or null to run them on the thread
+     *               advancing the clock
+     * @param window The number of ticks making up a single statistics window
+     * @param retention The number of closed windows to retain, beyond which the oldest are discarded
+     * @param logger The logger used to report uncaught exceptions
+     */
+    public VirtualClockScheduler(final @NotNull Key key, final @Nullable Executor runner, final long window, final int retention, final @NotNull PluginLogger logger) {
+        Preconditions.checkArgument(window > 0, "Window must be positive");
+        Preconditions.checkArgument(retention > 0, "Retention must be positive");
+        this.key = key;
+        this.runner = runner;
+        this.window = window;
+        this.retention = retention;
+        this.logger = logger;
+    }
+
+    /**
+     * Indicates the current tick of the virtual clock.
+     *
+     * @return The current tick
+     */
+    public long tick() {
+        return this.tick;
+    }
+
+    /**
+     * Indicates the number of tasks currently scheduled against this clock, including those cancelled
+     * but not yet discarded.
+     *
+     * @return The number of scheduled tasks
+     */
+    public int pending() {
+        synchronized (this.lock) {
+            return this.queue.size();
+        }
+    }
+
+    /**
+     * Advances the virtual clock by the given number of ticks, executing every task which becomes due along
+     * the way. This call returns once the clock has reached its target, and all tasks due up to and including
+     * the target tick have completed.
+     *
+     * @param ticks The number of ticks to advance the clock by
+     * @throws IllegalStateException If the clock is already being advanced
+     */
+    public void advance(final @NonNegative long ticks) {
+        Preconditions.checkArgument(ticks >= 0, "Ticks must not be negative");
+        Preconditions.checkState(this.advancing.compareAndSet(false, true), "The clock is already being advanced");
+
+        try {
+            long target = this.tick + ticks;
+            while(true) {
+                long next;
+                synchronized (this.lock) {
+                    Entry head = this.queue.peek();
+                    next = head == null ? Long.MAX_VALUE : head.due;
+                }
+
+                if(next > target) {
+                    this.move(target);
+                    return;
+                }
+
+                this.move(Math.max(next, this.tick));
+                this.execute();
+            }
+        } finally {
+            this.advancing.set(false);
+        }
+    }
+
+    /**
+     * Advances the virtual clock by the given number of ticks.
+     *
+     * @param ticks The number of ticks to advance the clock by
+     * @see #advance(long)
+     */
+    public void advance(final @NotNull Ticks ticks) {
+        this.advance(ticks.ticks());
+    }
+
+    /**
+     * Provides the statistics of the most recent windows in which at least one task was executed, in
+     * chronological order, up to the retention of this clock. The window currently in progress is included
+     * if it has executed any tasks.
+     *
+     * @return The statistics of each retained window of this clock
+     */
+    public List<WindowStatistics> windows() {
+        List<WindowStatistics> result;
+        synchronized (this.windows) {
+            result = new ArrayList<>(this.windows);
+        }
+
+        WindowStatistics current = this.snapshot();
+        if(current != null) {
+            result.add(current);
+        }
+
+        return result;
+    }
+
+    @Override
+    public Key key() {
+        return this.key;
+    }
+
+    @Override
+    public Executor executor() {
+        return this.executor;
+    }
+
+    /**
+     * Schedules the action to run on the next tick of the virtual clock.
+     *
+     * @param action The action to execute against this scheduler
+     */
+    @Override
+    public void publish(@NotNull Runnable action) {
+        this.schedule(action, 1, 0, false);
+    }
+
+    @Override
+    public SchedulerTask delayed(@NotNull Runnable action, @NotNull Ticks ticks) {
+        return this.schedule(action, ticks.ticks(), 0, false);
+    }
+
+    @Override
+    public SchedulerTask delayed(@NotNull Runnable action, @NonNegative long delay, @NotNull TimeUnit unit) {
+        return this.schedule(action, toTicks(delay, unit), 0, false);
+    }
+
+    @Override
+    public SchedulerTask repeating(@NotNull Runnable action, @NotNull Ticks ticks) {
+        return this.schedule(action, ticks.ticks(), ticks.ticks(), true);
+    }
+
+    @Override
+    public SchedulerTask repeating(@NotNull Runnable action, @NonNegative long interval, @NotNull TimeUnit unit) {
+        long ticks = toTicks(interval, unit);
+        return this.schedule(action, ticks, ticks, true);
+    }
+
+    @Override
+    public SchedulerTask delayedAndRepeating(@NotNull Runnable action, @NotNull Ticks delay, @NotNull Ticks interval) {
+        return this.schedule(action, delay.ticks(), interval.ticks(), true);
+    }
+
+    @Override
+    public SchedulerTask delayedAndRepeating(@NotNull Runnable action, @NonNegative long delay, @NonNegative long interval, @NotNull TimeUnit unit) {
+        return this.schedule(action, toTicks(delay, unit), toTicks(interval, unit), true);
+    }
+
+    /**
+     * Discards every scheduled task. Any further attempt to schedule work against this clock will be rejected.
+     */
+    @Override
+    public void shutdown() {
+        synchronized (this.lock) {
+            this.shutdown = true;
+            this.queue.clear();
+        }
+    }
+
+    private SchedulerTask schedule(Runnable action, long delay, long interval, boolean repeating) {
+        Preconditions.checkNotNull(action, "action");
+        Preconditions.checkArgument(delay >= 0 && interval >= 0, "Delay and interval must not be negative");
+
+        Entry entry = new Entry(action, Math.max(1, interval), repeating);
+        synchronized (this.lock) {
+            Preconditions.checkState(!this.shutdown, "Scheduler has been shutdown");
+            entry.due = this.tick + Math.max(1, delay);
+            entry.sequence = this.sequence++;
+            this.queue.offer(entry);
+        }
+
+        return () -> entry.cancelled = true;
+    }
+
+    private void move(long target) {
+        long index = target / this.window;
+        if(index != this.windowIndex) {
+            WindowStatistics closed = this.snapshot();
+            if(closed != null) {
+                synchronized (this.windows) {
+                    if(this.windows.size() == this.retention) {
+                        this.windows.removeFirst();
+                    }
+
+                    this.windows.addLast(closed);
+                }
+            }
+
+            this.windowIndex = index;
+            this.windowExecuted.reset();
+            this.windowCpu.reset();
+        }
+
+        this.tick = target;
+    }
+
+    private void execute() {
+        List<Entry> due = new ArrayList<>();
+        synchronized (this.lock) {
+            while(!this.queue.isEmpty() && this.queue.peek().due <= this.tick) {
+                Entry entry = this.queue.poll();
+                if(!entry.cancelled) {
+                    due.add(entry);
+                }
+            }
+        }
+
+        if(this.runner == null) {
+            for(Entry entry : due) {
+                this.run(entry);
+            }
+        } else {
+            CountDownLatch latch = new CountDownLatch(due.size());
+            for(Entry entry : due) {
+                this.runner.execute(() -> {
+                    try {
+                        this.run(entry);
+                    } finally {
+                        latch.countDown();
+                    }
+                });
+            }
+
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting on tasks due at tick " + this.tick, e);
+            }
+        }
+
+        synchronized (this.lock) {
+            for(Entry entry : due) {
+                if(entry.repeating && !entry.cancelled && !this.shutdown) {
+                    entry.due = this.tick + entry.interval;
+                    entry.sequence = this.sequence++;
+                    this.queue.offer(entry);
+                }
+            }
+        }
+    }
+
+    private void run(Entry entry) {
+        long start = cpu();
+        try {
+            entry.action.run();
+        } catch (Throwable e) {
+            this.logger.warn("Task on scheduler " + this.key.asString() + " threw an uncaught exception at tick " + this.tick, e);
+        } finally {
+            this.windowCpu.add(cpu() - start);
+            this.windowExecuted.increment();
+        }
+    }
+
+    private @Nullable WindowStatistics snapshot() {
+        long executed = this.windowExecuted.sum();
+        if(executed == 0) {
+            return null;
+        }
+
+        long start = this.windowIndex * this.window;
+        return new WindowStatistics(start, start + this.window - 1, executed, Duration.ofNanos(this.windowCpu.sum()));
+    }
+
+    private static long cpu() {
+        return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+
+    private static long toTicks(long duration, TimeUnit unit) {
+        long nanos = unit.toNanos(duration);
+        return nanos / TICK_NANOS + (nanos % TICK_NANOS == 0 ? 0 : 1);
+    }
+
+    private static final class Entry {
+        private final Runnable action;
+        private final long interval;
+        private final boolean repeating;
+
+        private long due;
+        private long sequence;
+        private volatile boolean cancelled;
+
+        private Entry(Runnable action, long interval, boolean repeating) {
+            this.action = action;
+            this.interval = interval;
+            this.repeating = repeating;
+        }
+
+        private long due() {
+            return this.due;
+        }
+
+        private long sequence() {
+            return this.sequence;
+        }
+    }
+
+    /**
+     * Represents the statistics of a single window of ticks of a {@link VirtualClockScheduler}.
+     *
+     * @param start The first tick of the window
+     * @param end The last tick of the window
+     * @param executed The number of tasks executed within the window
+     * @param cpu The total CPU time consumed by tasks executed within the window
+     */
+    public record WindowStatistics(long start, long end, long executed, Duration cpu) {}
+
+}
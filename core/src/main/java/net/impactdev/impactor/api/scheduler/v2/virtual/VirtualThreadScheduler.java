@@ -0,0 +1,245 @@
+/*
+ * This file is part of Impactor, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2018-2022 NickImpact
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package net.impactdev.impactor.api.scheduler.v2.virtual;
+
+import com.google.common.base.Preconditions;
+import net.impactdev.impactor.api.logging.PluginLogger;
+import net.impactdev.impactor.api.scheduler.SchedulerTask;
+import net.impactdev.impactor.api.scheduler.Ticks;
+import net.impactdev.impactor.api.scheduler.v2.Scheduler;
+import net.kyori.adventure.key.Key;
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@link Scheduler} which runs every action on its own virtual thread. This scheduler is intended for
+ * blocking work, such as JDBC calls made through an SQL connection, or economy lookups, which would otherwise
+ * pin the carrier threads of the shared worker pool and starve other asynchronous work.
+ *
+ * <p>As virtual threads are cheap to create, nothing would otherwise stop a burst of actions from flooding a
+ * database connection pool. To counter this, each instance of this scheduler bounds the number of actions it
+ * will run concurrently through a semaphore. Plugins requiring their own budget, such as one sized to their
+ * connection pool, should register a separate instance under their own key.</p>
+ *
+ * <p>On runtimes without virtual thread support, this scheduler falls back to a fixed pool of daemon
+ * threads sized to the concurrency bound, retaining the same guarantees.</p>
+ *
+ * @since 5.2.0
+ */
+public final class VirtualThreadScheduler implements Scheduler {
+
+    public static final Key KEY = Key.key("impactor", "virtual");
+
+    private static final String THREAD_NAME = "Impactor Virtual Scheduler";
+    private static final String WORKER_PREFIX = "Impactor Virtual Worker - ";
+    private static final ThreadLocal<VirtualThreadScheduler> OWNER = new ThreadLocal<>();
+
+    private final Key key;
+    private final PluginLogger logger;
+    private final Semaphore permits;
+    private final boolean virtual;
+
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final ExecutorService worker;
+    private final Executor executor = this::publish;
+
+    /**
+     * Creates a new virtual thread scheduler which allows at most the given number of actions to
+     * run at any given time.
+     *
+     * @param key The key identifying this scheduler
+     * @param concurrency The maximum number of actions that may be running concurrently
+     * @param logger The logger used to report uncaught exceptions and shutdown issues
+     */
+    public VirtualThreadScheduler(final @NotNull Key key, final int concurrency, final @NotNull PluginLogger logger) {
+        Preconditions.checkArgument(concurrency > 0, "Concurrency must be positive");
+        this.key = key;
+        this.logger = logger;
+        this.permits = new Semaphore(concurrency);
+
+        this.scheduler = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = Executors.defaultThreadFactory().newThread(r);
+            thread.setName(THREAD_NAME);
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.setRemoveOnCancelPolicy(true);
+        this.scheduler.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+
+        ExecutorService virtual = createVirtualExecutor();
+        this.virtual = virtual != null;
+        this.worker = this.virtual ? virtual : Executors.newFixedThreadPool(concurrency, new FallbackThreadFactory());
+    }
+
+    /**
+     * Indicates whether this scheduler is running its actions on virtual threads, or has fallen back
+     * to a pool of platform threads due to a lack of runtime support.
+     *
+     * @return <code>true</code> if actions execute on virtual threads, <code>false</code> otherwise
+     */
+    public boolean virtual() {
+        return this.virtual;
+    }
+
+    /**
+     * Indicates the number of additional actions which could begin execution right now without
+     * waiting on the concurrency bound of this scheduler. This holds for both virtual threads and the
+     * fallback pool, as actions hold a permit while running in either mode.
+     *
+     * @return The number of available execution permits
+     */
+    public int available() {
+        return this.permits.availablePermits();
+    }
+
+    @Override
+    public Key key() {
+        return this.key;
+    }
+
+    @Override
+    public Executor executor() {
+        return this.executor;
+    }
+
+    @Override
+    public boolean onThread() {
+        return OWNER.get() == this;
+    }
+
+    @Override
+    public void publish(@NotNull Runnable action) {
+        Preconditions.checkNotNull(action, "action");
+
+        // The fallback pool is sized to the concurrency bound, so acquiring a permit never blocks there,
+        // but it keeps the permit count an accurate reflection of the actions currently running
+        this.worker.execute(() -> {
+            OWNER.set(this);
+            this.permits.acquireUninterruptibly();
+            try {
+                action.run();
+            } catch (Throwable e) {
+                this.logger.warn("Virtual thread task on scheduler " + this.key.asString() + " threw an uncaught exception", e);
+            } finally {
+                this.permits.release();
+            }
+        });
+    }
+
+    @Override
+    public SchedulerTask delayed(@NotNull Runnable action, @NotNull Ticks ticks) {
+        return this.delayed(action, ticks.expectedDuration().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public SchedulerTask delayed(@NotNull Runnable action, @NonNegative long delay, @NotNull TimeUnit unit) {
+        ScheduledFuture<?> future = this.scheduler.schedule(() -> this.publish(action), delay, unit);
+        return () -> future.cancel(false);
+    }
+
+    @Override
+    public SchedulerTask repeating(@NotNull Runnable action, @NotNull Ticks ticks) {
+        return this.repeating(action, ticks.expectedDuration().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public SchedulerTask repeating(@NotNull Runnable action, @NonNegative long interval, @NotNull TimeUnit unit) {
+        return this.delayedAndRepeating(action, interval, interval, unit);
+    }
+
+    @Override
+    public SchedulerTask delayedAndRepeating(@NotNull Runnable action, @NotNull Ticks delay, @NotNull Ticks interval) {
+        return this.delayedAndRepeating(action, delay.expectedDuration().toMillis(), interval.expectedDuration().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public SchedulerTask delayedAndRepeating(@NotNull Runnable action, @NonNegative long delay, @NonNegative long interval, @NotNull TimeUnit unit) {
+        ScheduledFuture<?> future = this.scheduler.scheduleAtFixedRate(() -> this.publish(action), delay, interval, unit);
+        return () -> future.cancel(false);
+    }
+
+    @Override
+    public void shutdown() {
+        this.scheduler.shutdown();
+        this.worker.shutdown();
+        try {
+            if(!this.worker.awaitTermination(10, TimeUnit.SECONDS)) {
+                this.logger.severe("Timed out waiting for virtual thread tasks of scheduler " + this.key.asString() + " to complete");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Attempts to create a thread-per-task executor backed by virtual threads. As virtual threads are only
+     * available on more recent runtimes, the required API is accessed reflectively, a one-time cost paid
+     * during construction only.
+     *
+     * @return An executor spawning a virtual thread per task, or null if unsupported by the runtime
+     */
+    private static ExecutorService createVirtualExecutor() {
+        try {
+            Class<?> builder = Class.forName("java.lang.Thread$Builder");
+            Object instance = Thread.class.getMethod("ofVirtual").invoke(null);
+            instance = builder.getMethod("name", String.class, long.class).invoke(instance, WORKER_PREFIX, 0L);
+            ThreadFactory factory = (ThreadFactory) builder.getMethod("factory").invoke(instance);
+
+            Method creator = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            return (ExecutorService) creator.invoke(null, factory);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    private final class FallbackThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger(0);
+
+        @Override
+        public Thread newThread(@NotNull Runnable r) {
+            Thread thread = Executors.defaultThreadFactory().newThread(() -> {
+                OWNER.set(VirtualThreadScheduler.this);
+                r.run();
+            });
+            thread.setDaemon(true);
+            thread.setName(WORKER_PREFIX + this.count.getAndIncrement());
+            thread.setUncaughtExceptionHandler((t, e) -> VirtualThreadScheduler.this.logger.warn("Thread " + t.getName() + " threw an uncaught exception", e));
+            return thread;
+        }
+    }
+
+}
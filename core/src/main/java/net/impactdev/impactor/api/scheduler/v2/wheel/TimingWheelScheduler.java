@@ -0,0 +1,436 @@
+/*
+ * This file is part of Impactor, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2018-2022 NickImpact
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package net.impactdev.impactor.api.scheduler.v2.wheel;
+
+import com.google.common.base.Preconditions;
+import net.impactdev.impactor.api.logging.PluginLogger;
+import net.impactdev.impactor.api.scheduler.SchedulerTask;
+import net.impactdev.impactor.api.scheduler.Ticks;
+import net.impactdev.impactor.api.scheduler.v2.Scheduler;
+import net.kyori.adventure.key.Key;
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A {@link Scheduler} backed by a hashed timing wheel whose resolution is a single game tick (50 milliseconds).
+ * Unlike a {@link java.util.concurrent.ScheduledThreadPoolExecutor}, which keeps every pending task within a
+ * binary heap, scheduling and cancelling a task against this scheduler are both constant time operations. This
+ * makes the wheel a far better fit for workloads featuring tens of thousands of live, tick-aligned tasks, such as
+ * per-player scoreboard and UI updaters.
+ *
+ * <p>Tasks are handed over to the wheel through a lock-free queue, and only the dedicated ticker thread ever
+ * touches the wheel itself. Once a task expires, it is dispatched to the executor supplied at construction,
+ * meaning the ticker thread never runs user code. Any delay specified via a {@link TimeUnit} is rounded up to
+ * the nearest tick, and the interval of a repeating task is never shorter than a single tick.</p>
+ *
+ * <p>By default, the wheel is advanced by a dedicated ticker thread. A wheel may instead be
+ * {@link #driven(Key, Executor, PluginLogger, int) driven} externally, such as by the server's own tick loop,
+ * in which case it only advances through calls to {@link #tick()}.</p>
+ *
+ * <p>This scheduler is not registered by default. Platforms wishing to make it selectable should register it
+ * via {@link net.impactdev.impactor.api.scheduler.v2.Schedulers#register(Key, Scheduler)}, typically under
+ * {@link #KEY}.</p>
+ *
+ * @since 5.2.0
+ */
+public final class TimingWheelScheduler implements Scheduler {
+
+    public static final Key KEY = Key.key("impactor", "wheel");
+
+    private static final String THREAD_NAME = "Impactor Timing Wheel";
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final int DEFAULT_WHEEL_SIZE = 512;
+
+    private final Key key;
+    private final Executor executor;
+    private final PluginLogger logger;
+
+    private final Bucket[] wheel;
+    private final int mask;
+
+    private final Queue<Timeout> pending = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+
+    private final @Nullable Thread ticker;
+    private volatile boolean running = true;
+
+    /** The current tick of the wheel, only ever accessed by the thread advancing the wheel */
+    private long tick;
+    private final List<Timeout> expired = new ArrayList<>();
+
+    public TimingWheelScheduler(final @NotNull Key key, final @NotNull Executor executor, final @NotNull PluginLogger logger) {
+        this(key, executor, logger, DEFAULT_WHEEL_SIZE);
+    }
+
+    /**
+     * Creates a new timing wheel with the given number of buckets. The wheel size is rounded up to the next
+     * power of two, and effectively decides how many ticks a task can be delayed for before it must survive
+     * multiple rotations of the wheel.
+     *
+     * @param key The key identifying this scheduler
+     * @param executor The executor expired tasks will be dispatched to
+     * @param logger A logger used to report failures encountered by the ticker thread
+     * @param buckets The number of buckets to allocate for the wheel
+     */
+    public TimingWheelScheduler(final @NotNull Key key, final @NotNull Executor executor, final @NotNull PluginLogger logger, int buckets) {
+        this(key, executor, logger, buckets, true);
+    }
+
+    private TimingWheelScheduler(Key key, Executor executor, PluginLogger logger, int buckets, boolean ticker) {
+        Preconditions.checkArgument(buckets > 0 && buckets <= 1 << 20, "Invalid wheel size: %s", buckets);
+        this.key = key;
+        this.executor = executor;
+        this.logger = logger;
+
+        int size = Integer.highestOneBit(buckets);
+        if(size < buckets) {
+            size <<= 1;
+        }
+
+        this.wheel = new Bucket[size];
+        for(int i = 0; i < size; i++) {
+            this.wheel[i] = new Bucket();
+        }
+        this.mask = size - 1;
+
+        if(ticker) {
+            this.ticker = new Thread(this::run, THREAD_NAME);
+            this.ticker.setDaemon(true);
+            this.ticker.start();
+        } else {
+            this.ticker = null;
+        }
+    }
+
+    /**
+     * Creates a new timing wheel without a ticker thread, which only advances through calls to {@link #tick()}.
+     * Delays are counted the same as for a wheel advanced by its own ticker thread, in that tasks are placed on
+     * the first tick following their submission. As such, a task delayed by n ticks runs on the n + 1th call to
+     * {@link #tick()} following its submission.
+     *
+     * @param key The key identifying this scheduler
+     * @param executor The executor expired tasks will be dispatched to
+     * @param logger A logger used to report failures encountered while dispatching tasks
+     * @param buckets The number of buckets to allocate for the wheel
+     * @return A timing wheel driven by calls to {@link #tick()}
+     */
+    public static TimingWheelScheduler driven(final @NotNull Key key, final @NotNull Executor executor, final @NotNull PluginLogger logger, int buckets) {
+        return new TimingWheelScheduler(key, executor, logger, buckets, false);
+    }
+
+    /**
+     * Advances a {@link #driven(Key, Executor, PluginLogger, int) driven} wheel by a single tick, dispatching
+     * every task which expires on that tick. This must only ever be called from a single thread at a time.
+     *
+     * @throws IllegalStateException If this wheel is advanced by its own ticker thread, or has been shutdown
+     */
+    public void tick() {
+        Preconditions.checkState(this.ticker == null, "Wheel is advanced by its own ticker thread");
+        Preconditions.checkState(this.running, "Scheduler has been shutdown");
+        this.advance();
+    }
+
+    @Override
+    public Key key() {
+        return this.key;
+    }
+
+    @Override
+    public Executor executor() {
+        return this.executor;
+    }
+
+    @Override
+    public void publish(@NotNull Runnable action) {
+        this.executor.execute(action);
+    }
+
+    @Override
+    public SchedulerTask delayed(@NotNull Runnable action, @NotNull Ticks ticks) {
+        return this.schedule(action, ticks.ticks(), 0);
+    }
+
+    @Override
+    public SchedulerTask delayed(@NotNull Runnable action, @NonNegative long delay, @NotNull TimeUnit unit) {
+        return this.schedule(action, toTicks(delay, unit), 0);
+    }
+
+    @Override
+    public SchedulerTask repeating(@NotNull Runnable action, @NotNull Ticks ticks) {
+        return this.schedule(action, ticks.ticks(), repeat(ticks.ticks()));
+    }
+
+    @Override
+    public SchedulerTask repeating(@NotNull Runnable action, @NonNegative long interval, @NotNull TimeUnit unit) {
+        long ticks = repeat(toTicks(interval, unit));
+        return this.schedule(action, ticks, ticks);
+    }
+
+    @Override
+    public SchedulerTask delayedAndRepeating(@NotNull Runnable action, @NotNull Ticks delay, @NotNull Ticks interval) {
+        return this.schedule(action, delay.ticks(), repeat(interval.ticks()));
+    }
+
+    @Override
+    public SchedulerTask delayedAndRepeating(@NotNull Runnable action, @NonNegative long delay, @NonNegative long interval, @NotNull TimeUnit unit) {
+        return this.schedule(action, toTicks(delay, unit), repeat(toTicks(interval, unit)));
+    }
+
+    @Override
+    public void shutdown() {
+        this.running = false;
+        if(this.ticker != null) {
+            LockSupport.unpark(this.ticker);
+            try {
+                this.ticker.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            if(this.ticker.isAlive()) {
+                this.logger.severe("Timed out waiting for the " + THREAD_NAME + " to terminate");
+            }
+        }
+
+        this.pending.clear();
+        this.cancelled.clear();
+        for(Bucket bucket : this.wheel) {
+            bucket.clear();
+        }
+    }
+
+    private SchedulerTask schedule(Runnable action, long delay, long interval) {
+        Preconditions.checkNotNull(action, "action");
+        Preconditions.checkArgument(delay >= 0, "Delay must be non-negative");
+        Preconditions.checkArgument(interval >= 0, "Interval must be non-negative");
+        Preconditions.checkState(this.running, "Scheduler has been shutdown");
+
+        Timeout timeout = new Timeout(this, action, Math.max(1, delay), interval);
+        this.pending.add(timeout);
+        return timeout;
+    }
+
+    private static long toTicks(long duration, TimeUnit unit) {
+        long nanos = unit.toNanos(duration);
+        return nanos / TICK_NANOS + (nanos % TICK_NANOS == 0 ? 0 : 1);
+    }
+
+    /**
+     * Clamps the interval of a repeating task to a single tick, as an interval of zero ticks would otherwise
+     * mark the task as a one-shot task.
+     */
+    private static long repeat(long interval) {
+        Preconditions.checkArgument(interval >= 0, "Interval must be non-negative");
+        return Math.max(1, interval);
+    }
+
+    private void run() {
+        long start = System.nanoTime();
+
+        while(this.running) {
+            long deadline = start + (this.tick + 1) * TICK_NANOS;
+            long remaining;
+            while((remaining = deadline - System.nanoTime()) > 0 && this.running) {
+                LockSupport.parkNanos(this, remaining);
+            }
+
+            if(!this.running) {
+                break;
+            }
+
+            try {
+                this.advance();
+            } catch (Throwable e) {
+                this.logger.severe("The " + THREAD_NAME + " encountered an unexpected exception", e);
+            }
+        }
+    }
+
+    private void advance() {
+        List<Timeout> expired = this.expired;
+        this.tick++;
+        this.removeCancelled();
+
+        Bucket bucket = this.wheel[(int) (this.tick & this.mask)];
+        bucket.expire(expired);
+
+        // Pending tasks are only placed once the current bucket has expired, as placement assumes the
+        // bucket of the current tick is next visited a full rotation from now
+        this.transferPending();
+
+        for(Timeout timeout : expired) {
+            if(timeout.state != Timeout.ACTIVE) {
+                continue;
+            }
+
+            if(timeout.interval > 0) {
+                this.place(timeout, timeout.interval);
+            } else {
+                timeout.state = Timeout.EXPIRED;
+            }
+
+            try {
+                this.executor.execute(timeout.action);
+            } catch (Throwable e) {
+                this.logger.severe("Failed to dispatch task to executor of scheduler " + this.key.asString(), e);
+            }
+        }
+
+        expired.clear();
+    }
+
+    private void transferPending() {
+        Timeout timeout;
+        while((timeout = this.pending.poll()) != null) {
+            if(timeout.state == Timeout.ACTIVE) {
+                this.place(timeout, timeout.delay);
+            }
+        }
+    }
+
+    private void removeCancelled() {
+        Timeout timeout;
+        while((timeout = this.cancelled.poll()) != null) {
+            if(timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    private void place(Timeout timeout, long ticks) {
+        long target = this.tick + ticks;
+        timeout.rounds = (ticks - 1) / this.wheel.length;
+        this.wheel[(int) (target & this.mask)].add(timeout);
+    }
+
+    private static final class Timeout implements SchedulerTask {
+
+        private static final int ACTIVE = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private static final AtomicIntegerFieldUpdater<Timeout> STATE = AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+        private final TimingWheelScheduler parent;
+        private final Runnable action;
+        private final long delay;
+        private final long interval;
+
+        private volatile int state = ACTIVE;
+
+        // Wheel bookkeeping, only ever touched by the ticker thread
+        private long rounds;
+        private Bucket bucket;
+        private Timeout next;
+        private Timeout previous;
+
+        private Timeout(TimingWheelScheduler parent, Runnable action, long delay, long interval) {
+            this.parent = parent;
+            this.action = action;
+            this.delay = delay;
+            this.interval = interval;
+        }
+
+        @Override
+        public void cancel() {
+            if(STATE.compareAndSet(this, ACTIVE, CANCELLED)) {
+                this.parent.cancelled.add(this);
+            }
+        }
+
+    }
+
+    private static final class Bucket {
+
+        private Timeout head;
+        private Timeout tail;
+
+        private void add(Timeout timeout) {
+            timeout.bucket = this;
+            if(this.head == null) {
+                this.head = this.tail = timeout;
+            } else {
+                this.tail.next = timeout;
+                timeout.previous = this.tail;
+                this.tail = timeout;
+            }
+        }
+
+        private void remove(Timeout timeout) {
+            Timeout next = timeout.next;
+            if(timeout.previous != null) {
+                timeout.previous.next = next;
+            }
+            if(next != null) {
+                next.previous = timeout.previous;
+            }
+
+            if(timeout == this.head) {
+                this.head = next;
+            }
+            if(timeout == this.tail) {
+                this.tail = timeout.previous;
+            }
+
+            timeout.previous = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+
+        private void expire(List<Timeout> expired) {
+            Timeout timeout = this.head;
+            while(timeout != null) {
+                Timeout next = timeout.next;
+                if(timeout.state != Timeout.ACTIVE) {
+                    this.remove(timeout);
+                } else if(timeout.rounds <= 0) {
+                    this.remove(timeout);
+                    expired.add(timeout);
+                } else {
+                    timeout.rounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        private void clear() {
+            this.head = null;
+            this.tail = null;
+        }
+
+    }
+
+}
@@ -0,0 +1,126 @@
+/*
+ * This file is part of Impactor, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2018-2022 NickImpact
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package net.impactdev.impactor.api.test;
+
+import net.impactdev.impactor.api.events.ImpactorEvent;
+import net.impactdev.impactor.api.events.journal.EventCodec;
+import net.impactdev.impactor.api.events.journal.EventJournal;
+import net.impactdev.impactor.api.logging.NoOpLogger;
+import net.kyori.adventure.key.Key;
+import org.junit.jupiter.api.Test;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public final class EventJournalTests {
+
+    private static final Key KEY = Key.key("impactor", "test");
+
+    @Test
+    public void truncatedTail() throws IOException {
+        Path path = Files.createTempFile("journal", ".bin");
+        try {
+            int valid;
+            try(EventJournal journal = open(path)) {
+                journal.append(new ValueEvent(0));
+                journal.append(new ValueEvent(1));
+                valid = journal.size();
+                journal.append(new ValueEvent(2));
+            }
+
+            // Simulate the process terminating part way through writing the final record, leaving its
+            // length intact while the tail of its body was never written
+            try(FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.allocate(2), valid + 12);
+            }
+
+            try(EventJournal journal = open(path)) {
+                assertEquals(valid, journal.size(), "Torn record was not treated as the end of the journal");
+                assertEquals(List.of(0, 1), values(journal));
+
+                journal.append(new ValueEvent(3));
+                assertEquals(List.of(0, 1, 3), values(journal));
+            }
+
+            try(EventJournal journal = open(path)) {
+                assertEquals(List.of(0, 1, 3), values(journal));
+            }
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    public void interfaceCodec() throws IOException {
+        Path path = Files.createTempFile("journal", ".bin");
+        try(EventJournal journal = open(path)) {
+            journal.append(new ValueEvent(7));
+            journal.append(new ImpactorEvent() {});
+            assertEquals(List.of(7), values(journal));
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    private static EventJournal open(Path path) throws IOException {
+        return EventJournal.open(path, 64, new NoOpLogger()).register(KEY, Valued.class, new EventCodec<>() {
+            @Override
+            public void write(Valued event, DataOutput output) throws IOException {
+                output.writeInt(event.value());
+            }
+
+            @Override
+            public Valued read(DataInput input) throws IOException {
+                return new ValueEvent(input.readInt());
+            }
+        });
+    }
+
+    private static List<Integer> values(EventJournal journal) {
+        List<Integer> values = new ArrayList<>();
+        journal.replay((time, event) -> values.add(((Valued) event).value()));
+        return values;
+    }
+
+    public interface Valued extends ImpactorEvent {
+
+        int value();
+
+    }
+
+    public record ValueEvent(int value) implements Valued {}
+
+}
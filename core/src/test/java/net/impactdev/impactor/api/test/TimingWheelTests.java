@@ -0,0 +1,118 @@
+/*
+ * This file is part of Impactor, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2018-2022 NickImpact
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package net.impactdev.impactor.api.test;
+
+import net.impactdev.impactor.api.logging.NoOpLogger;
+import net.impactdev.impactor.api.scheduler.SchedulerTask;
+import net.impactdev.impactor.api.scheduler.v2.wheel.TimingWheelScheduler;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public final class TimingWheelTests {
+
+    private static final long TICK = 50;
+
+    @Test
+    public void placement() {
+        TimingWheelScheduler scheduler = create();
+        try {
+            // With 4 buckets, these delays land within the first rotation, exactly one rotation ahead,
+            // and several rotations ahead respectively
+            for(long ticks : new long[] { 3, 4, 5, 10 }) {
+                AtomicInteger ran = new AtomicInteger();
+                scheduler.delayed(ran::incrementAndGet, ticks * TICK, TimeUnit.MILLISECONDS);
+
+                // Tasks are placed on the first tick following their submission
+                advance(scheduler, ticks);
+                assertEquals(0, ran.get(), "Task delayed by " + ticks + " ticks ran early");
+
+                advance(scheduler, 1);
+                assertEquals(1, ran.get(), "Task delayed by " + ticks + " ticks did not run on time");
+
+                advance(scheduler, 8);
+                assertEquals(1, ran.get(), "Task delayed by " + ticks + " ticks ran more than once");
+            }
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    public void cancellation() {
+        TimingWheelScheduler scheduler = create();
+        try {
+            AtomicInteger delayed = new AtomicInteger();
+            scheduler.delayed(delayed::incrementAndGet, 6 * TICK, TimeUnit.MILLISECONDS).cancel();
+
+            AtomicInteger repeating = new AtomicInteger();
+            SchedulerTask task = scheduler.repeating(repeating::incrementAndGet, TICK, TimeUnit.MILLISECONDS);
+            advance(scheduler, 5);
+            assertEquals(4, repeating.get());
+
+            task.cancel();
+            advance(scheduler, 10);
+
+            assertEquals(0, delayed.get());
+            assertEquals(4, repeating.get(), "Repeating task ran after cancellation");
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    public void repeat() {
+        TimingWheelScheduler scheduler = create();
+        try {
+            AtomicInteger rotations = new AtomicInteger();
+            SchedulerTask task = scheduler.repeating(rotations::incrementAndGet, 5 * TICK, TimeUnit.MILLISECONDS);
+            advance(scheduler, 16);
+            assertEquals(3, rotations.get(), "Task repeating across rotations did not run every 5 ticks");
+            task.cancel();
+
+            AtomicInteger clamped = new AtomicInteger();
+            task = scheduler.repeating(clamped::incrementAndGet, 0, TimeUnit.MILLISECONDS);
+            advance(scheduler, 4);
+            assertEquals(3, clamped.get(), "Task with a zero interval did not repeat every tick");
+            task.cancel();
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    private static void advance(TimingWheelScheduler scheduler, long ticks) {
+        for(long i = 0; i < ticks; i++) {
+            scheduler.tick();
+        }
+    }
+
+    private static TimingWheelScheduler create() {
+        return TimingWheelScheduler.driven(TimingWheelScheduler.KEY, Runnable::run, new NoOpLogger(), 4);
+    }
+
+}
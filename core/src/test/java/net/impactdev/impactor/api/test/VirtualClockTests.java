@@ -0,0 +1,91 @@
+/*
+ * This file is part of Impactor, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2018-2022 NickImpact
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package net.impactdev.impactor.api.test;
+
+import net.impactdev.impactor.api.logging.NoOpLogger;
+import net.impactdev.impactor.api.scheduler.SchedulerTask;
+import net.impactdev.impactor.api.scheduler.v2.simulation.VirtualClockScheduler;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public final class VirtualClockTests {
+
+    private static final long TICK = 50;
+
+    @Test
+    public void delayed() {
+        VirtualClockScheduler scheduler = create();
+        AtomicInteger ran = new AtomicInteger();
+        scheduler.delayed(ran::incrementAndGet, 3 * TICK, TimeUnit.MILLISECONDS);
+
+        scheduler.advance(2);
+        assertEquals(0, ran.get(), "Task delayed by 3 ticks ran early");
+
+        scheduler.advance(1);
+        assertEquals(1, ran.get(), "Task delayed by 3 ticks did not run on time");
+
+        scheduler.advance(100);
+        assertEquals(1, ran.get(), "Delayed task ran more than once");
+        assertEquals(0, scheduler.pending());
+    }
+
+    @Test
+    public void repeating() {
+        VirtualClockScheduler scheduler = create();
+        AtomicInteger ran = new AtomicInteger();
+        SchedulerTask task = scheduler.repeating(ran::incrementAndGet, 20 * TICK, TimeUnit.MILLISECONDS);
+
+        scheduler.advance(20 * 1000);
+        assertEquals(1000, ran.get());
+
+        task.cancel();
+        scheduler.advance(100);
+        assertEquals(1000, ran.get(), "Repeating task ran after cancellation");
+    }
+
+    @Test
+    public void zeroInterval() {
+        VirtualClockScheduler scheduler = create();
+        AtomicInteger repeating = new AtomicInteger();
+        AtomicInteger delayed = new AtomicInteger();
+        scheduler.repeating(repeating::incrementAndGet, 0, TimeUnit.MILLISECONDS);
+        scheduler.delayedAndRepeating(delayed::incrementAndGet, 0, 0, TimeUnit.MILLISECONDS);
+
+        scheduler.advance(5);
+        assertEquals(5, repeating.get(), "Repeating task with a zero interval did not run every tick");
+        assertEquals(5, delayed.get(), "Delayed repeating task with a zero interval did not run every tick");
+        assertEquals(2, scheduler.pending());
+    }
+
+    private static VirtualClockScheduler create() {
+        return new VirtualClockScheduler(VirtualClockScheduler.KEY, new NoOpLogger());
+    }
+
+}
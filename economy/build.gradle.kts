@@ -1,8 +1,20 @@
 plugins {
     id("impactor.api-conventions")
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 dependencies {
     api(project(":api:core"))
     api(project(":api:storage"))
-}
\ No newline at end of file
+
+    testImplementation("org.junit.jupiter:junit-jupiter-api:5.9.2")
+    testRuntimeOnly("org.junit.jupiter:junit-jupiter-engine:5.9.2")
+}
+
+tasks.withType(Test::class) {
+    useJUnitPlatform()
+}
+
+jmh {
+    jmhVersion.set("1.37")
+}
@@ -0,0 +1,105 @@
+/*
+ * This file is part of Impactor, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2018-2022 NickImpact
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package net.impactdev.impactor.api.economy.benchmarks;
+
+import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.Multimap;
+import net.impactdev.impactor.api.economy.EconomyService;
+import net.impactdev.impactor.api.economy.accounts.Account;
+import net.impactdev.impactor.api.economy.currency.Currency;
+import net.impactdev.impactor.api.economy.currency.CurrencyProvider;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An economy service whose account lookups block the executing thread for a fixed latency, standing in for
+ * the JDBC round trip of a storage backed implementation. As only the cost of the round trip is of interest,
+ * lookups resolve without an account.
+ */
+final class BlockingEconomyService implements EconomyService {
+
+    private final Executor executor;
+    private final long latency;
+
+    BlockingEconomyService(Executor executor, long latency, TimeUnit unit) {
+        this.executor = executor;
+        this.latency = unit.toNanos(latency);
+    }
+
+    @Override
+    public String name() {
+        return "Blocking Economy";
+    }
+
+    @Override
+    public CurrencyProvider currencies() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public CompletableFuture<Boolean> hasAccount(Currency currency, UUID uuid) {
+        return this.account(currency, uuid).thenApply(account -> account != null);
+    }
+
+    @Override
+    public CompletableFuture<Account> account(Currency currency, UUID uuid) {
+        return CompletableFuture.supplyAsync(() -> {
+            this.block();
+            return null;
+        }, this.executor);
+    }
+
+    @Override
+    public CompletableFuture<Account> account(Currency currency, UUID uuid, Account.AccountModifier modifier) {
+        return this.account(currency, uuid);
+    }
+
+    @Override
+    public CompletableFuture<Multimap<Currency, Account>> accounts() {
+        return CompletableFuture.completedFuture(ImmutableMultimap.of());
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteAccount(Currency currency, UUID uuid) {
+        return CompletableFuture.runAsync(this::block, this.executor);
+    }
+
+    @Override
+    public CompletableFuture<Void> save(Account account) {
+        return CompletableFuture.runAsync(this::block, this.executor);
+    }
+
+    private void block() {
+        try {
+            TimeUnit.NANOSECONDS.sleep(this.latency);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
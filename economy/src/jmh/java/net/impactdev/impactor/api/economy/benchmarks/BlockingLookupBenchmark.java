@@ -0,0 +1,117 @@
+/*
+ * This file is part of Impactor, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2018-2022 NickImpact
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package net.impactdev.impactor.api.economy.benchmarks;
+
+import net.impactdev.impactor.api.economy.EconomyService;
+import net.impactdev.impactor.api.logging.NoOpLogger;
+import net.impactdev.impactor.api.scheduler.v2.virtual.VirtualThreadScheduler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time taken to resolve a burst of concurrent account lookups, each blocking for the duration of
+ * a storage round trip, when run on the historical 16 thread worker pool versus a {@link VirtualThreadScheduler}
+ * bounded to the given concurrency. On runtimes without virtual threads, the scheduler falls back to a pool of
+ * platform threads sized to that bound.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class BlockingLookupBenchmark {
+
+    private static final int WORKERS = 16;
+
+    @Param({ "10000" })
+    public int lookups;
+
+    @Param({ "1" })
+    public long latency;
+
+    @Param({ "64", "256" })
+    public int concurrency;
+
+    private ForkJoinPool pool;
+    private VirtualThreadScheduler scheduler;
+    private EconomyService pooled;
+    private EconomyService virtual;
+    private UUID[] owners;
+
+    @Setup
+    public void setup() {
+        this.pool = new ForkJoinPool(WORKERS);
+        this.scheduler = new VirtualThreadScheduler(VirtualThreadScheduler.KEY, this.concurrency, new NoOpLogger());
+        this.pooled = new BlockingEconomyService(this.pool, this.latency, TimeUnit.MILLISECONDS);
+        this.virtual = new BlockingEconomyService(this.scheduler.executor(), this.latency, TimeUnit.MILLISECONDS);
+
+        this.owners = new UUID[this.lookups];
+        for(int i = 0; i < this.lookups; i++) {
+            this.owners[i] = new UUID(0, i);
+        }
+    }
+
+    @TearDown
+    public void teardown() {
+        this.pool.shutdownNow();
+        this.scheduler.shutdown();
+    }
+
+    @Benchmark
+    public void workerPool() {
+        this.resolve(this.pooled);
+    }
+
+    @Benchmark
+    public void virtualThreads() {
+        this.resolve(this.virtual);
+    }
+
+    private void resolve(EconomyService service) {
+        CompletableFuture<?>[] futures = new CompletableFuture[this.owners.length];
+        for(int i = 0; i < this.owners.length; i++) {
+            futures[i] = service.account(null, this.owners[i]);
+        }
+
+        CompletableFuture.allOf(futures).join();
+    }
+
+}
@@ -0,0 +1,139 @@
+/*
+ * This file is part of Impactor, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2018-2022 NickImpact
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package net.impactdev.impactor.api.economy.benchmarks;
+
+import net.impactdev.impactor.api.economy.accounts.FixedPointBalance;
+import net.impactdev.impactor.api.economy.transactions.details.EconomyResultType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Measures the time taken to deposit into, withdraw from, and transfer between account balances held as a
+ * {@link BigDecimal}, as accounts have historically held them, versus balances held as a
+ * {@link FixedPointBalance}. Both representations are updated atomically, and reject withdrawals which would
+ * take the balance below zero. Running with {@code -prof gc} additionally reports the allocation of each.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FixedPointBenchmark {
+
+    private static final int DECIMALS = 2;
+    private static final long INITIAL = 1_000_000_000_000L;
+    private static final long UNITS = 150;
+    private static final BigDecimal AMOUNT = BigDecimal.valueOf(UNITS, DECIMALS);
+
+    private AtomicReference<BigDecimal> decimalSource;
+    private AtomicReference<BigDecimal> decimalTarget;
+    private FixedPointBalance fixedSource;
+    private FixedPointBalance fixedTarget;
+
+    @Setup
+    public void setup() {
+        this.decimalSource = new AtomicReference<>(BigDecimal.valueOf(INITIAL, DECIMALS));
+        this.decimalTarget = new AtomicReference<>(BigDecimal.valueOf(INITIAL, DECIMALS));
+        this.fixedSource = new FixedPointBalance(DECIMALS, INITIAL);
+        this.fixedTarget = new FixedPointBalance(DECIMALS, INITIAL);
+    }
+
+    @Benchmark
+    public EconomyResultType depositDecimal() {
+        return deposit(this.decimalTarget, AMOUNT);
+    }
+
+    @Benchmark
+    public EconomyResultType depositFixed() {
+        return this.fixedTarget.deposit(UNITS);
+    }
+
+    @Benchmark
+    public EconomyResultType withdrawDecimal() {
+        return withdraw(this.decimalSource, AMOUNT);
+    }
+
+    @Benchmark
+    public EconomyResultType withdrawFixed() {
+        return this.fixedSource.withdraw(UNITS);
+    }
+
+    @Benchmark
+    public EconomyResultType transferDecimal() {
+        EconomyResultType result = withdraw(this.decimalSource, AMOUNT);
+        if(result != EconomyResultType.SUCCESS) {
+            return result;
+        }
+
+        return deposit(this.decimalTarget, AMOUNT);
+    }
+
+    @Benchmark
+    public EconomyResultType transferFixed() {
+        return FixedPointBalance.transfer(this.fixedSource, this.fixedTarget, UNITS);
+    }
+
+    private static EconomyResultType deposit(AtomicReference<BigDecimal> balance, BigDecimal amount) {
+        if(amount.signum() < 0) {
+            return EconomyResultType.INVALID;
+        }
+
+        balance.accumulateAndGet(amount, BigDecimal::add);
+        return EconomyResultType.SUCCESS;
+    }
+
+    private static EconomyResultType withdraw(AtomicReference<BigDecimal> balance, BigDecimal amount) {
+        if(amount.signum() < 0) {
+            return EconomyResultType.INVALID;
+        }
+
+        BigDecimal current;
+        BigDecimal updated;
+        do {
+            current = balance.get();
+            updated = current.subtract(amount);
+            if(updated.signum() < 0) {
+                return EconomyResultType.NOT_ENOUGH_FUNDS;
+            }
+        } while(!balance.compareAndSet(current, updated));
+
+        return EconomyResultType.SUCCESS;
+    }
+
+}
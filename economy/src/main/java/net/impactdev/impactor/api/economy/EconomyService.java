@@ -32,10 +32,16 @@ import net.impactdev.impactor.api.services.Service;
 import net.impactdev.impactor.api.economy.accounts.Account;
 import net.impactdev.impactor.api.economy.currency.Currency;
 import net.impactdev.impactor.api.economy.currency.CurrencyProvider;
+import net.impactdev.impactor.api.economy.leaderboard.Leaderboard;
+import net.impactdev.impactor.api.economy.leaderboard.SkipListLeaderboard;
+import net.impactdev.impactor.api.economy.storage.AccountPublisher;
 
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
 
 /**
  * This service provides an "async-in-mind" design for economy based operations. As most
@@ -137,9 +143,52 @@ public interface EconomyService extends Service {
      */
     CompletableFuture<Account> account(Currency currency, UUID uuid, Account.AccountModifier modifier);
 
+    /**
+     * Fetches or creates the accounts bound to the primary currency, as specified by
+     * {@link CurrencyProvider#primary()}, for each of the given UUIDs.
+     *
+     * @param uuids The UUIDs of the account owners
+     * @return A map of each owner to their stored account, or a new account reflecting the request
+     * @see #accounts(Currency, Collection)
+     * @since 5.2.0
+     */
+    default CompletableFuture<Map<UUID, Account>> accounts(Collection<UUID> uuids) {
+        return this.accounts(this.currencies().primary(), uuids);
+    }
+
+    /**
+     * Fetches or creates the accounts bound to the specified currency for each of the given UUIDs,
+     * following the same rules as {@link #account(Currency, UUID)}. Duplicate UUIDs are only resolved
+     * once.
+     *
+     * <p>By default, this simply resolves each account individually. Implementations are encouraged to
+     * override this method in favor of a single query against their storage, such as via a
+     * {@link net.impactdev.impactor.api.economy.storage.BulkAccountLoader BulkAccountLoader}.</p>
+     *
+     * @param currency The currency the accounts will be bound to
+     * @param uuids The UUIDs of the account owners
+     * @return A map of each owner to their stored account, or a new account reflecting the request
+     * @since 5.2.0
+     */
+    default CompletableFuture<Map<UUID, Account>> accounts(Currency currency, Collection<UUID> uuids) {
+        Map<UUID, CompletableFuture<Account>> futures = new LinkedHashMap<>();
+        for(UUID uuid : uuids) {
+            futures.computeIfAbsent(uuid, key -> this.account(currency, key));
+        }
+
+        return CompletableFuture.allOf(futures.values().toArray(CompletableFuture[]::new)).thenApply(ignored -> {
+            Map<UUID, Account> accounts = new LinkedHashMap<>();
+            futures.forEach((uuid, future) -> accounts.put(uuid, future.join()));
+            return accounts;
+        });
+    }
+
     /**
      * Provides an immutable Multimap of currencies to all accounts accessible via the economy provider.
      *
+     * <p>As this loads every account of every currency into memory at once, callers processing accounts
+     * in bulk should prefer {@link #stream(Currency, int)} instead.</p>
+     *
      * @return A map of all currencies to accounts
      */
     CompletableFuture<Multimap<Currency, Account>> accounts();
@@ -147,6 +196,11 @@ public interface EconomyService extends Service {
     /**
      * Provides an immutable collection of accounts in regard to a particular currency.
      *
+     * <p>By default, this is resolved from {@link #accounts()}, and as such still loads the accounts of every
+     * currency. Implementations able to query the accounts of a single currency should override this method,
+     * for instance by {@link AccountPublisher#collect(Flow.Publisher) collecting} from their own
+     * {@link #stream(Currency, int) stream}.</p>
+     *
      * @param currency The currency to filter on
      * @return An immutable collection of accounts
      * @see #accounts()
@@ -155,6 +209,42 @@ public interface EconomyService extends Service {
         return this.accounts().thenApply(map -> map.get(currency));
     }
 
+    /**
+     * Streams the accounts in regard to a particular currency, fetching accounts from storage in
+     * batches of the given size as they are requested by the subscriber, rather than loading every
+     * account at once.
+     *
+     * <p>By default, this publishes the accounts supplied by {@link #accounts(Currency)}, and as such still
+     * loads every account of the currency into memory, ignoring the fetch size. Implementations are encouraged
+     * to override this method in favor of a cursor over their storage, such as via
+     * {@link AccountPublisher#jdbc AccountPublisher.jdbc}.</p>
+     *
+     * @param currency The currency to filter on
+     * @param fetch The number of accounts to fetch from storage per round trip
+     * @return A publisher of every account bound to the currency
+     * @since 5.2.0
+     */
+    default Flow.Publisher<Account> stream(Currency currency, int fetch) {
+        return AccountPublisher.of(() -> this.accounts(currency));
+    }
+
+    /**
+     * Provides the leaderboard ranking the accounts of the given currency by balance. Rather than sorting
+     * every account of the currency per request, the leaderboard is maintained incrementally as transactions
+     * occur, and is only populated from storage the first time it is requested.
+     *
+     * <p>By default, this provides a {@link SkipListLeaderboard} shared for this service and the currency, rebuilt
+     * from the accounts supplied by {@link #stream(Currency, int)}. Implementations relying on this default should
+     * {@link SkipListLeaderboard#release(EconomyService) release} their leaderboards once shutdown.</p>
+     *
+     * @param currency The currency of the ranked accounts
+     * @return A future supplying the leaderboard once it has been populated
+     * @since 5.2.0
+     */
+    default CompletableFuture<Leaderboard> leaderboard(Currency currency) {
+        return SkipListLeaderboard.shared(this, currency);
+    }
+
     /**
      * Using the given UUID, attempts to delete an account owned by the given UUID for the primary currency.
      * If you wish to delete an account bound to another currency, use {@link #deleteAccount(Currency, UUID)}
@@ -185,4 +275,18 @@ public interface EconomyService extends Service {
     @CanIgnoreReturnValue
     CompletableFuture<Void> save(Account account);
 
+    /**
+     * Saves the given accounts as a single batch. By default, this simply saves each account individually,
+     * and implementations backed by storage capable of batched upserts are encouraged to override this
+     * method in favor of a single round trip.
+     *
+     * @param accounts The accounts to save
+     * @return A future which completes once every account has been saved
+     * @since 5.2.0
+     */
+    @CanIgnoreReturnValue
+    default CompletableFuture<Void> saveAll(Collection<Account> accounts) {
+        return CompletableFuture.allOf(accounts.stream().map(this::save).toArray(CompletableFuture[]::new));
+    }
+
 }
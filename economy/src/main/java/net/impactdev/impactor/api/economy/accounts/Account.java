@@ -269,6 +269,64 @@ public interface Account {
         return CompletableFuture.completedFuture(this.transfer(to, amount));
     }
 
+    /**
+     * Provides the current balance of this account in minor units of its currency, as described by
+     * {@link Currency#toMinorUnits(BigDecimal)}.
+     *
+     * <p>By default, this converts the result of {@link #balance()}. Implementations holding their balance
+     * as a {@link FixedPointBalance} are encouraged to override this, along with the other minor unit
+     * operations, such that no {@link BigDecimal} is allocated on these paths.</p>
+     *
+     * @return The current balance of this account in minor units
+     * @since 5.2.0
+     */
+    default long minorBalance() {
+        return this.currency().toMinorUnits(this.balance());
+    }
+
+    /**
+     * Withdraws the given number of minor units of the currency from this account, following the
+     * same rules as {@link #withdraw(BigDecimal)}.
+     *
+     * @param units The number of minor units to withdraw
+     * @return A transaction report indicating the result of the operation
+     * @since 5.2.0
+     */
+    @NotNull
+    @CanIgnoreReturnValue
+    default EconomyTransaction withdrawMinor(long units) {
+        return this.withdraw(this.currency().fromMinorUnits(units));
+    }
+
+    /**
+     * Deposits the given number of minor units of the currency into this account, following the
+     * same rules as {@link #deposit(BigDecimal)}.
+     *
+     * @param units The number of minor units to deposit
+     * @return A transaction report indicating the result of the operation
+     * @since 5.2.0
+     */
+    @NotNull
+    @CanIgnoreReturnValue
+    default EconomyTransaction depositMinor(long units) {
+        return this.deposit(this.currency().fromMinorUnits(units));
+    }
+
+    /**
+     * Transfers the given number of minor units of the currency from this account to the target account,
+     * following the same rules as {@link #transfer(Account, BigDecimal)}.
+     *
+     * @param to The account money is being transferred to
+     * @param units The number of minor units to transfer
+     * @return A transaction report indicating the result of the operation
+     * @since 5.2.0
+     */
+    @NotNull
+    @CanIgnoreReturnValue
+    default EconomyTransferTransaction transferMinor(Account to, long units) {
+        return this.transfer(to, this.currency().fromMinorUnits(units));
+    }
+
     /**
      * Resets an account's balance to the defined starting balance of the currency,
      * or a config's given override, if set.
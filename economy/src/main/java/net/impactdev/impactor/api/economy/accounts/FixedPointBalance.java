@@ -0,0 +1,259 @@
+/*
+ * This file is part of Impactor, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2018-2022 NickImpact
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package net.impactdev.impactor.api.economy.accounts;
+
+import com.google.common.base.Preconditions;
+import net.impactdev.impactor.api.economy.currency.Currency;
+import net.impactdev.impactor.api.economy.transactions.details.EconomyResultType;
+import org.jetbrains.annotations.NotNull;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A thread-safe account balance held as a whole number of minor units, scaled by the
+ * {@link Currency#decimals() decimals} of its currency, rather than as a {@link BigDecimal}. As deposits,
+ * withdrawals, and transfers then amount to long arithmetic, no allocation takes place on these paths,
+ * allowing {@link Account} implementations to only materialize a {@link BigDecimal} at the boundaries of
+ * the API, such as via {@link #balance()}.
+ *
+ * <p>Every operation is checked for overflow. An operation which would push the balance beyond the range
+ * of a long is rejected with a result of {@link EconomyResultType#NO_REMAINING_SPACE}, rather than silently
+ * wrapping around.</p>
+ *
+ * <p>Withdrawals may not take the balance below its {@link #minimum() minimum}, which by default is zero.
+ * Implementations whose accounts permit negative balances, such as for overdrafts, may lower the minimum
+ * when creating the balance, or disable it entirely via {@link Long#MIN_VALUE}.</p>
+ *
+ * @since 5.2.0
+ */
+public final class FixedPointBalance {
+
+    private final int decimals;
+    private final long minimum;
+    private final AtomicLong units;
+
+    /**
+     * Creates a balance holding the given amount, scaled by the decimals of the given currency.
+     *
+     * @param currency The currency of the balance
+     * @param amount The initial amount held by the balance
+     * @throws ArithmeticException If the amount cannot be represented in minor units of the currency
+     */
+    public FixedPointBalance(final @NotNull Currency currency, final @NotNull BigDecimal amount) {
+        this(currency.decimals(), units(amount, currency.decimals()));
+    }
+
+    /**
+     * Creates a balance holding the given number of minor units, at the given scale. Withdrawals may not
+     * take the balance below zero.
+     *
+     * @param decimals The number of decimal places held by the minor units
+     * @param units The initial number of minor units held by the balance
+     */
+    public FixedPointBalance(final int decimals, final long units) {
+        this(decimals, units, 0);
+    }
+
+    /**
+     * Creates a balance holding the given number of minor units, at the given scale, which withdrawals
+     * may not take below the given minimum.
+     *
+     * @param decimals The number of decimal places held by the minor units
+     * @param units The initial number of minor units held by the balance
+     * @param minimum The lowest number of minor units a withdrawal may leave the balance with, or
+     *                {@link Long#MIN_VALUE} to only reject withdrawals which would overflow the balance
+     */
+    public FixedPointBalance(final int decimals, final long units, final long minimum) {
+        Preconditions.checkArgument(decimals >= 0, "Decimals must not be negative");
+        this.decimals = decimals;
+        this.minimum = minimum;
+        this.units = new AtomicLong(units);
+    }
+
+    /**
+     * Converts the given amount into a whole number of minor units at the given scale.
+     *
+     * @param amount The amount to convert
+     * @param decimals The number of decimal places held by the minor units
+     * @return The amount in minor units
+     * @throws ArithmeticException If the amount holds more decimal places than the scale allows, or
+     * cannot be represented by a long
+     */
+    public static long units(final @NotNull BigDecimal amount, final int decimals) {
+        return amount.setScale(decimals, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Transfers the given number of minor units from one balance to another. A transfer which the target
+     * balance has no room for is rejected before anything is withdrawn from the source balance, and should
+     * the deposit into the target balance still fail, such as due to a concurrent deposit, the withdrawal is
+     * reverted. Either way, a failed transfer leaves both balances as they were.
+     *
+     * @param from The balance to withdraw from
+     * @param to The balance to deposit into
+     * @param units The number of minor units to transfer
+     * @return The result of the transfer
+     */
+    public static EconomyResultType transfer(final @NotNull FixedPointBalance from, final @NotNull FixedPointBalance to, final long units) {
+        Preconditions.checkArgument(from.decimals == to.decimals, "Balances do not share the same scale");
+        if(units < 0) {
+            return EconomyResultType.INVALID;
+        }
+
+        if(to.units() > Long.MAX_VALUE - units) {
+            return EconomyResultType.NO_REMAINING_SPACE;
+        }
+
+        EconomyResultType result = from.withdraw(units);
+        if(result != EconomyResultType.SUCCESS) {
+            return result;
+        }
+
+        while(to.deposit(units) != EconomyResultType.SUCCESS) {
+            // Deposits made into the source balance in the meantime may have taken up the room freed by the
+            // withdrawal, in which case the units are held until either balance is able to accept them
+            if(from.deposit(units) == EconomyResultType.SUCCESS) {
+                return EconomyResultType.NO_REMAINING_SPACE;
+            }
+
+            Thread.onSpinWait();
+        }
+
+        return EconomyResultType.SUCCESS;
+    }
+
+    /**
+     * Indicates the number of decimal places held by the minor units of this balance.
+     *
+     * @return The scale of this balance
+     */
+    public int decimals() {
+        return this.decimals;
+    }
+
+    /**
+     * Indicates the lowest number of minor units a withdrawal may leave this balance with.
+     *
+     * @return The minimum of this balance
+     */
+    public long minimum() {
+        return this.minimum;
+    }
+
+    /**
+     * Provides the current balance in minor units.
+     *
+     * @return The current number of minor units
+     */
+    public long units() {
+        return this.units.get();
+    }
+
+    /**
+     * Provides the current balance as a {@link BigDecimal}, scaled by the decimals of this balance.
+     *
+     * @return The current balance
+     */
+    public BigDecimal balance() {
+        return BigDecimal.valueOf(this.units.get(), this.decimals);
+    }
+
+    /**
+     * Sets the balance to the given number of minor units.
+     *
+     * @param units The new number of minor units
+     * @return The result of the operation, which is always {@link EconomyResultType#SUCCESS}
+     */
+    public EconomyResultType set(final long units) {
+        this.units.set(units);
+        return EconomyResultType.SUCCESS;
+    }
+
+    /**
+     * Deposits the given number of minor units into this balance.
+     *
+     * @param units The number of minor units to deposit
+     * @return {@link EconomyResultType#SUCCESS} if the deposit was made, {@link EconomyResultType#INVALID} if
+     * the amount is negative, or {@link EconomyResultType#NO_REMAINING_SPACE} if the deposit would overflow
+     * the balance
+     */
+    public EconomyResultType deposit(final long units) {
+        if(units < 0) {
+            return EconomyResultType.INVALID;
+        }
+
+        long current;
+        long updated;
+        do {
+            current = this.units.get();
+            updated = current + units;
+            if(updated < current) {
+                return EconomyResultType.NO_REMAINING_SPACE;
+            }
+        } while(!this.units.compareAndSet(current, updated));
+
+        return EconomyResultType.SUCCESS;
+    }
+
+    /**
+     * Withdraws the given number of minor units from this balance. The balance may not drop below its
+     * {@link #minimum() minimum}.
+     *
+     * @param units The number of minor units to withdraw
+     * @return {@link EconomyResultType#SUCCESS} if the withdrawal was made, {@link EconomyResultType#INVALID}
+     * if the amount is negative, {@link EconomyResultType#NOT_ENOUGH_FUNDS} if the withdrawal would take the
+     * balance below its minimum, or {@link EconomyResultType#NO_REMAINING_SPACE} if the withdrawal would
+     * overflow the balance
+     */
+    public EconomyResultType withdraw(final long units) {
+        if(units < 0) {
+            return EconomyResultType.INVALID;
+        }
+
+        long current;
+        long updated;
+        do {
+            current = this.units.get();
+            updated = current - units;
+            if(updated > current) {
+                return EconomyResultType.NO_REMAINING_SPACE;
+            }
+
+            if(updated < this.minimum) {
+                return EconomyResultType.NOT_ENOUGH_FUNDS;
+            }
+        } while(!this.units.compareAndSet(current, updated));
+
+        return EconomyResultType.SUCCESS;
+    }
+
+    @Override
+    public String toString() {
+        return this.balance().toPlainString();
+    }
+
+}
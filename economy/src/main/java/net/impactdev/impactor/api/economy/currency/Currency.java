@@ -28,6 +28,7 @@ package net.impactdev.impactor.api.economy.currency;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import net.impactdev.impactor.api.Impactor;
 import net.impactdev.impactor.api.economy.accounts.Account;
+import net.impactdev.impactor.api.economy.accounts.FixedPointBalance;
 import net.impactdev.impactor.api.platform.audience.LocalizedAudience;
 import net.impactdev.impactor.api.platform.sources.PlatformSource;
 import net.impactdev.impactor.api.utility.builders.Builder;
@@ -106,6 +107,32 @@ public interface Currency {
      */
     int decimals();
 
+    /**
+     * Converts the given amount into a whole number of minor units of this currency, as scaled by
+     * {@link #decimals()}. For instance, with US currency, $1.50 would be represented by 150 minor units.
+     *
+     * @param amount The amount to convert
+     * @return The amount in minor units
+     * @throws ArithmeticException If the amount holds more decimal places than the currency allows, or
+     * cannot be represented by a long
+     * @since 5.2.0
+     */
+    default long toMinorUnits(final @NotNull BigDecimal amount) {
+        return FixedPointBalance.units(amount, this.decimals());
+    }
+
+    /**
+     * Converts the given number of minor units of this currency back into an amount, as scaled by
+     * {@link #decimals()}.
+     *
+     * @param units The number of minor units
+     * @return The amount represented by the minor units
+     * @since 5.2.0
+     */
+    default BigDecimal fromMinorUnits(final long units) {
+        return BigDecimal.valueOf(units, this.decimals());
+    }
+
     /**
      * Indicates if this given currency should act as the primary currency for the economy service.
      * While multiple currencies can be declared as a primary currency, only one can truly act as
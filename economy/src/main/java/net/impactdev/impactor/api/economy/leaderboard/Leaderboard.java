@@ -0,0 +1,93 @@
+/*
+ * This file is part of Impactor, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2018-2022 NickImpact
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package net.impactdev.impactor.api.economy.leaderboard;
+
+import net.impactdev.impactor.api.economy.currency.Currency;
+import org.jetbrains.annotations.NotNull;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.UUID;
+
+/**
+ * Represents the accounts of a currency ranked by their balance, from highest to lowest. Accounts sharing the
+ * same balance are ranked by the UUID of their owner, such that ranks remain stable between queries.
+ *
+ * @since 5.2.0
+ */
+public interface Leaderboard {
+
+    /**
+     * Represents the currency the accounts of this leaderboard are bound to.
+     *
+     * @return The currency of this leaderboard
+     */
+    Currency currency();
+
+    /**
+     * Indicates the number of accounts ranked by this leaderboard.
+     *
+     * @return The number of ranked accounts
+     */
+    int size();
+
+    /**
+     * Provides the highest ranked accounts of this leaderboard.
+     *
+     * @param limit The maximum number of accounts to provide
+     * @return The highest ranked accounts, in order of their rank
+     */
+    default List<Entry> top(int limit) {
+        return this.range(1, limit);
+    }
+
+    /**
+     * Provides the accounts ranked from the given rank onwards, such as for a single page of a leaderboard.
+     *
+     * @param rank The rank of the first account to provide, starting from 1
+     * @param limit The maximum number of accounts to provide
+     * @return The accounts ranked from the given rank onwards, in order of their rank
+     */
+    List<Entry> range(int rank, int limit);
+
+    /**
+     * Locates the rank of the account owned by the given UUID.
+     *
+     * @param owner The owner of the account
+     * @return The rank of the account, starting from 1, or empty if the account is not ranked
+     */
+    OptionalInt rank(final @NotNull UUID owner);
+
+    /**
+     * Represents a single ranked account.
+     *
+     * @param rank The rank of the account, starting from 1
+     * @param owner The owner of the account
+     * @param balance The balance of the account at the time it was ranked
+     */
+    record Entry(int rank, UUID owner, BigDecimal balance) {}
+
+}
@@ -0,0 +1,503 @@
+/*
+ * This file is part of Impactor, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2018-2022 NickImpact
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package net.impactdev.impactor.api.economy.leaderboard;
+
+import com.google.common.base.Preconditions;
+import net.impactdev.impactor.api.economy.EconomyService;
+import net.impactdev.impactor.api.economy.accounts.Account;
+import net.impactdev.impactor.api.economy.currency.Currency;
+import net.impactdev.impactor.api.economy.events.EconomyTransactionEvent;
+import net.impactdev.impactor.api.economy.events.EconomyTransferTransactionEvent;
+import net.impactdev.impactor.api.economy.storage.AccountPublisher;
+import net.impactdev.impactor.api.events.ImpactorEventBus;
+import net.kyori.adventure.key.Key;
+import net.kyori.event.EventSubscriber;
+import net.kyori.event.EventSubscription;
+import net.kyori.event.PostOrders;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.ref.WeakReference;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.UUID;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * A {@link Leaderboard} maintained incrementally as balances change, rather than sorting every account of a currency
+ * on each request. Accounts are held within an indexable skip list, where each link additionally records the number
+ * of accounts it spans, such that both locating the rank of an account and seeking to a given rank take
+ * O(log n) time. Updating the balance of an account equally takes O(log n) time.
+ *
+ * <p>Once {@link #attach(ImpactorEventBus) attached} to a bus, the balance of every account involved in a successful
+ * transaction is updated as the transaction completes. The leaderboard is populated lazily from storage via a
+ * {@link #rebuild(Flow.Publisher) rebuild}, during which balances updated by transactions take precedence over those
+ * read from storage. Only non-virtual accounts are ranked. As no event accompanies the deletion of an account,
+ * services deleting accounts should {@link #remove(UUID) remove} them from the leaderboard of their currency.</p>
+ *
+ * @since 5.2.0
+ */
+public final class SkipListLeaderboard implements Leaderboard {
+
+    private static final int MAX_LEVEL = 32;
+    private static final Map<EconomyService, Map<Key, Shared>> SHARED = new WeakHashMap<>();
+
+    private final Currency currency;
+    private final Node head = new Node(null, null, MAX_LEVEL);
+    private final Map<UUID, Node> nodes = new HashMap<>();
+
+    private int level = 1;
+    private Set<UUID> touched;
+    private volatile CompletableFuture<Leaderboard> ready;
+
+    /**
+     * Creates an empty leaderboard for the given currency.
+     *
+     * @param currency The currency of the ranked accounts
+     */
+    public SkipListLeaderboard(final @NotNull Currency currency) {
+        this.currency = currency;
+        this.ready = CompletableFuture.completedFuture(this);
+    }
+
+    /**
+     * Provides the leaderboard shared for the given service and currency, creating it if necessary. A newly
+     * created leaderboard is attached to the {@link ImpactorEventBus#bus() Impactor event bus}, and rebuilt from
+     * the accounts {@link EconomyService#stream(Currency, int) streamed} by the given service. Should the rebuild
+     * fail, the leaderboard is discarded, such that the following request attempts the rebuild again.
+     *
+     * <p>Shared leaderboards remain attached for as long as their service is in use, and should be
+     * {@link #release(EconomyService) released} once the service is shutdown or replaced. As their
+     * subscriptions reference neither the service nor the leaderboard strongly, a service which is never
+     * released has its leaderboards detached by the first transaction following its collection.</p>
+     *
+     * @param service The service supplying the accounts of the currency
+     * @param currency The currency of the ranked accounts
+     * @return A future supplying the leaderboard once it has been rebuilt
+     */
+    public static CompletableFuture<Leaderboard> shared(final @NotNull EconomyService service, final @NotNull Currency currency) {
+        Key key = currency.key();
+        SkipListLeaderboard leaderboard;
+        CompletableFuture<Leaderboard> result;
+        Shared shared;
+        Map<Key, Shared> boards;
+        synchronized(SHARED) {
+            boards = SHARED.computeIfAbsent(service, ignored -> new HashMap<>());
+            Shared existing = boards.get(key);
+            if(existing != null) {
+                return existing.leaderboard().ready();
+            }
+
+            leaderboard = new SkipListLeaderboard(currency);
+            result = leaderboard.begin();
+            WeakReference<EconomyService> owner = new WeakReference<>(service);
+            WeakReference<SkipListLeaderboard> target = new WeakReference<>(leaderboard);
+            shared = new Shared(leaderboard, subscribe(ImpactorEventBus.bus(), () -> owner.get() != null ? target.get() : null));
+            boards.put(key, shared);
+        }
+
+        // The rebuild is started only once the leaderboard is visible to other requests, which instead await
+        // its result, and may complete on this thread should the service publish its accounts synchronously
+        result.whenComplete((ignored, error) -> {
+            if(error != null) {
+                discard(boards, key, shared);
+            }
+        });
+
+        try {
+            leaderboard.populate(service.stream(currency, AccountPublisher.DEFAULT_FETCH_SIZE), result);
+        } catch (Exception e) {
+            leaderboard.complete();
+            result.completeExceptionally(e);
+        }
+
+        return result;
+    }
+
+    /**
+     * Detaches and discards every leaderboard shared for the given service, such as once the service has
+     * been shutdown or replaced. Any later request for a shared leaderboard of the service creates and
+     * rebuilds it anew.
+     *
+     * @param service The service whose leaderboards should be released
+     */
+    public static void release(final @NotNull EconomyService service) {
+        Map<Key, Shared> boards;
+        synchronized(SHARED) {
+            boards = SHARED.remove(service);
+        }
+
+        if(boards != null) {
+            boards.values().forEach(shared -> shared.subscription().unsubscribe());
+        }
+    }
+
+    private static void discard(Map<Key, Shared> boards, Key key, Shared shared) {
+        // Boards are tracked without referencing their service, such that a service which is never released
+        // remains eligible for garbage collection
+        synchronized(SHARED) {
+            if(!boards.remove(key, shared)) {
+                return;
+            }
+        }
+
+        shared.subscription().unsubscribe();
+    }
+
+    /**
+     * Provides a future which completes once any rebuild in progress has completed.
+     *
+     * @return A future supplying this leaderboard once it is ready
+     */
+    public CompletableFuture<Leaderboard> ready() {
+        return this.ready;
+    }
+
+    @Override
+    public Currency currency() {
+        return this.currency;
+    }
+
+    @Override
+    public synchronized int size() {
+        return this.nodes.size();
+    }
+
+    @Override
+    public synchronized List<Entry> range(int rank, int limit) {
+        Preconditions.checkArgument(rank > 0, "Rank must be positive");
+        Preconditions.checkArgument(limit >= 0, "Limit must not be negative");
+
+        List<Entry> entries = new ArrayList<>(Math.min(limit, Math.max(0, this.nodes.size() - rank + 1)));
+        Node node = this.seek(rank);
+        for(int i = 0; i < limit && node != null; i++) {
+            entries.add(new Entry(rank + i, node.owner, node.balance));
+            node = node.next[0];
+        }
+
+        return entries;
+    }
+
+    @Override
+    public synchronized OptionalInt rank(final @NotNull UUID owner) {
+        Node target = this.nodes.get(owner);
+        if(target == null) {
+            return OptionalInt.empty();
+        }
+
+        int rank = 0;
+        Node node = this.head;
+        for(int i = this.level - 1; i >= 0; i--) {
+            while(node.next[i] != null && compare(node.next[i], target.balance, target.owner) <= 0) {
+                rank += node.span[i];
+                node = node.next[i];
+            }
+
+            if(node == target) {
+                return OptionalInt.of(rank);
+            }
+        }
+
+        return OptionalInt.empty();
+    }
+
+    /**
+     * Updates the balance of the account owned by the given UUID, ranking the account if it is not
+     * yet ranked.
+     *
+     * @param owner The owner of the account
+     * @param balance The new balance of the account
+     */
+    public synchronized void update(final @NotNull UUID owner, final @NotNull BigDecimal balance) {
+        if(this.touched != null) {
+            this.touched.add(owner);
+        }
+
+        this.put(owner, balance);
+    }
+
+    /**
+     * Removes the account owned by the given UUID from this leaderboard.
+     *
+     * @param owner The owner of the account
+     */
+    public synchronized void remove(final @NotNull UUID owner) {
+        if(this.touched != null) {
+            this.touched.add(owner);
+        }
+
+        Node node = this.nodes.remove(owner);
+        if(node != null) {
+            this.unlink(node);
+        }
+    }
+
+    /**
+     * Ranks every account involved in a successful transaction posted to the given bus, using the
+     * balance of the account following the transaction.
+     *
+     * @param bus The bus to track transactions from
+     * @return A subscription which can be used to stop tracking transactions
+     */
+    public EventSubscription attach(final @NotNull ImpactorEventBus bus) {
+        return subscribe(bus, () -> this);
+    }
+
+    private static EventSubscription subscribe(ImpactorEventBus bus, Supplier<SkipListLeaderboard> target) {
+        // Subscribers resolve their leaderboard on each event, and detach themselves once it is no longer available
+        AtomicReference<EventSubscription> self = new AtomicReference<>();
+        EventSubscription transactions = bus.subscribe(EconomyTransactionEvent.Post.class, new EventSubscriber<>() {
+            @Override
+            public void on(final @NonNull EconomyTransactionEvent.Post event) {
+                SkipListLeaderboard leaderboard = target.get();
+                if(leaderboard == null) {
+                    self.get().unsubscribe();
+                } else if(event.transaction().successful()) {
+                    leaderboard.track(event.account());
+                }
+            }
+
+            @Override
+            public int postOrder() {
+                return PostOrders.LAST;
+            }
+        });
+        EventSubscription transfers = bus.subscribe(EconomyTransferTransactionEvent.Post.class, new EventSubscriber<>() {
+            @Override
+            public void on(final @NonNull EconomyTransferTransactionEvent.Post event) {
+                SkipListLeaderboard leaderboard = target.get();
+                if(leaderboard == null) {
+                    self.get().unsubscribe();
+                } else if(event.transaction().successful()) {
+                    leaderboard.track(event.from());
+                    leaderboard.track(event.to());
+                }
+            }
+
+            @Override
+            public int postOrder() {
+                return PostOrders.LAST;
+            }
+        });
+
+        self.set(() -> {
+            transactions.unsubscribe();
+            transfers.unsubscribe();
+        });
+        return self.get();
+    }
+
+    /**
+     * Ranks every account supplied by the given publisher. Accounts updated or removed while the rebuild
+     * is in progress retain their updated state, rather than that supplied by the publisher.
+     *
+     * @param accounts A publisher of the accounts of the currency, such as via
+     *                 {@link EconomyService#stream(Currency, int)}
+     * @return A future which completes once every account has been ranked
+     */
+    public CompletableFuture<Leaderboard> rebuild(final @NotNull Flow.Publisher<Account> accounts) {
+        return this.populate(accounts, this.begin());
+    }
+
+    private synchronized CompletableFuture<Leaderboard> begin() {
+        Preconditions.checkState(this.touched == null, "A rebuild is already in progress");
+        CompletableFuture<Leaderboard> result = new CompletableFuture<>();
+        this.touched = new HashSet<>();
+        this.ready = result;
+        return result;
+    }
+
+    private CompletableFuture<Leaderboard> populate(Flow.Publisher<Account> accounts, CompletableFuture<Leaderboard> result) {
+        accounts.subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(Account account) {
+                synchronized(SkipListLeaderboard.this) {
+                    if(!account.virtual() && !SkipListLeaderboard.this.touched.contains(account.owner())) {
+                        SkipListLeaderboard.this.put(account.owner(), account.balance());
+                    }
+                }
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                SkipListLeaderboard.this.complete();
+                result.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                SkipListLeaderboard.this.complete();
+                result.complete(SkipListLeaderboard.this);
+            }
+        });
+
+        return result;
+    }
+
+    private synchronized void complete() {
+        this.touched = null;
+    }
+
+    private void track(Account account) {
+        if(!account.virtual() && account.currency().key().equals(this.currency.key())) {
+            this.update(account.owner(), account.balance());
+        }
+    }
+
+    private void put(UUID owner, BigDecimal balance) {
+        Node existing = this.nodes.get(owner);
+        if(existing != null) {
+            if(existing.balance.compareTo(balance) == 0) {
+                return;
+            }
+
+            this.unlink(existing);
+        }
+
+        Node[] update = new Node[MAX_LEVEL];
+        int[] rank = new int[MAX_LEVEL];
+        Node node = this.head;
+        for(int i = this.level - 1; i >= 0; i--) {
+            rank[i] = i == this.level - 1 ? 0 : rank[i + 1];
+            while(node.next[i] != null && compare(node.next[i], balance, owner) < 0) {
+                rank[i] += node.span[i];
+                node = node.next[i];
+            }
+
+            update[i] = node;
+        }
+
+        int level = randomLevel();
+        if(level > this.level) {
+            for(int i = this.level; i < level; i++) {
+                rank[i] = 0;
+                update[i] = this.head;
+                this.head.span[i] = this.nodes.size() - (existing != null ? 1 : 0);
+            }
+
+            this.level = level;
+        }
+
+        Node inserted = new Node(owner, balance, level);
+        for(int i = 0; i < level; i++) {
+            inserted.next[i] = update[i].next[i];
+            update[i].next[i] = inserted;
+            inserted.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+            update[i].span[i] = rank[0] - rank[i] + 1;
+        }
+
+        for(int i = level; i < this.level; i++) {
+            update[i].span[i]++;
+        }
+
+        this.nodes.put(owner, inserted);
+    }
+
+    private void unlink(Node target) {
+        Node node = this.head;
+        for(int i = this.level - 1; i >= 0; i--) {
+            while(node.next[i] != null && node.next[i] != target && compare(node.next[i], target.balance, target.owner) < 0) {
+                node = node.next[i];
+            }
+
+            if(node.next[i] == target) {
+                node.span[i] += target.span[i] - 1;
+                node.next[i] = target.next[i];
+            } else {
+                node.span[i]--;
+            }
+        }
+
+        while(this.level > 1 && this.head.next[this.level - 1] == null) {
+            this.level--;
+        }
+    }
+
+    private Node seek(int rank) {
+        int traversed = 0;
+        Node node = this.head;
+        for(int i = this.level - 1; i >= 0; i--) {
+            while(node.next[i] != null && traversed + node.span[i] <= rank) {
+                traversed += node.span[i];
+                node = node.next[i];
+            }
+
+            if(traversed == rank) {
+                return node;
+            }
+        }
+
+        return null;
+    }
+
+    private static int compare(Node node, BigDecimal balance, UUID owner) {
+        int result = balance.compareTo(node.balance);
+        return result != 0 ? result : node.owner.compareTo(owner);
+    }
+
+    private static int randomLevel() {
+        int level = 1;
+        while(level < MAX_LEVEL && ThreadLocalRandom.current().nextInt(4) == 0) {
+            level++;
+        }
+
+        return level;
+    }
+
+    private record Shared(SkipListLeaderboard leaderboard, EventSubscription subscription) {}
+
+    private static final class Node {
+
+        private final UUID owner;
+        private final BigDecimal balance;
+        private final Node[] next;
+        private final int[] span;
+
+        private Node(UUID owner, BigDecimal balance, int level) {
+            this.owner = owner;
+            this.balance = balance;
+            this.next = new Node[level];
+            this.span = new int[level];
+        }
+
+    }
+
+}
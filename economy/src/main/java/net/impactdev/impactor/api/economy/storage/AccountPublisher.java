@@ -0,0 +1,402 @@
+/*
+ * This file is part of Impactor, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2018-2022 NickImpact
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package net.impactdev.impactor.api.economy.storage;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import net.impactdev.impactor.api.economy.accounts.Account;
+import net.impactdev.impactor.api.storage.connection.sql.SQLConnection;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * A {@link Flow.Publisher} of accounts, reading accounts from a {@link Cursor} only as they are requested by the
+ * subscriber. This allows the accounts of a currency to be processed without ever holding all of them in memory,
+ * which for servers holding millions of accounts would otherwise amount to a significant spike in heap usage.
+ *
+ * <p>The publisher is cold, opening a new cursor for each subscriber, and closing it once the subscriber has either
+ * received every account, encountered an error, or cancelled its subscription. Accounts are read and emitted on
+ * the executor supplied to the publisher.</p>
+ *
+ * @since 5.2.0
+ */
+public final class AccountPublisher implements Flow.Publisher<Account> {
+
+    /**
+     * The number of rows fetched per round trip when no fetch size is otherwise specified.
+     */
+    public static final int DEFAULT_FETCH_SIZE = 500;
+
+    private final Supplier<CompletableFuture<Cursor>> opener;
+    private final Executor executor;
+
+    private AccountPublisher(Supplier<CompletableFuture<Cursor>> opener, Executor executor) {
+        this.opener = opener;
+        this.executor = executor;
+    }
+
+    /**
+     * Creates a publisher which opens a new cursor for each subscriber through the given opener, and reads
+     * accounts from it on the given executor.
+     *
+     * @param opener Opens a cursor over the accounts to publish
+     * @param executor The executor accounts are read and emitted on
+     * @return A publisher of the accounts supplied by each cursor
+     */
+    public static AccountPublisher of(final @NotNull Supplier<CompletableFuture<Cursor>> opener, final @NotNull Executor executor) {
+        return new AccountPublisher(opener, executor);
+    }
+
+    /**
+     * Creates a publisher of the accounts within the given collection once it has been resolved. As the collection
+     * is already held in memory, accounts are emitted on the thread which requests them.
+     *
+     * @param accounts A future supplying the accounts to publish
+     * @return A publisher of the supplied accounts
+     */
+    public static AccountPublisher of(final @NotNull Supplier<CompletableFuture<? extends Collection<Account>>> accounts) {
+        return new AccountPublisher(() -> accounts.get().thenApply(Cursor::of), Runnable::run);
+    }
+
+    /**
+     * Creates a publisher of accounts read from the results of the given SQL statement through a server-side
+     * cursor. Rather than loading the entire result set at once, the driver is instructed to fetch rows in
+     * batches of the given size as accounts are requested. The statement is run within a read-only transaction,
+     * as required by some drivers for a fetch size to take effect, while others may require further connection
+     * properties, such as {@code useCursorFetch} for MySQL. The auto-commit and read-only state of the connection
+     * are restored once the cursor is closed.
+     *
+     * @param connection The connection to run the statement against
+     * @param statement The statement selecting the accounts to publish
+     * @param binder Binds the parameters of the statement
+     * @param mapper Maps a row of the results to an account
+     * @param fetch The number of rows to fetch per round trip
+     * @param executor The executor the statement is run on, and accounts are read and emitted on
+     * @return A publisher of the accounts selected by the statement
+     */
+    public static AccountPublisher jdbc(
+            final @NotNull SQLConnection connection,
+            final @NotNull String statement,
+            final @NotNull Binder binder,
+            final @NotNull Mapper mapper,
+            final int fetch,
+            final @NotNull Executor executor
+    ) {
+        Preconditions.checkArgument(fetch > 0, "Fetch size must be positive");
+        return new AccountPublisher(() -> CompletableFuture.supplyAsync(() -> {
+            try {
+                return new JdbcCursor(connection, statement, binder, mapper, fetch);
+            } catch (SQLException e) {
+                throw new IllegalStateException("Failed to open account cursor", e);
+            }
+        }, executor), executor);
+    }
+
+    /**
+     * Subscribes to the given publisher, collecting every account it supplies into an immutable list.
+     *
+     * @param publisher The publisher to collect accounts from
+     * @return A future supplying every account published
+     */
+    public static CompletableFuture<Collection<Account>> collect(final @NotNull Flow.Publisher<Account> publisher) {
+        CompletableFuture<Collection<Account>> result = new CompletableFuture<>();
+        publisher.subscribe(new Flow.Subscriber<>() {
+            private final ImmutableList.Builder<Account> accounts = ImmutableList.builder();
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(Account account) {
+                this.accounts.add(account);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                result.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                result.complete(this.accounts.build());
+            }
+        });
+
+        return result;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super Account> subscriber) {
+        Preconditions.checkNotNull(subscriber, "subscriber");
+        CursorSubscription subscription = new CursorSubscription(subscriber, this.executor);
+        subscriber.onSubscribe(subscription);
+
+        CompletableFuture<Cursor> cursor;
+        try {
+            cursor = this.opener.get();
+        } catch (Exception e) {
+            cursor = CompletableFuture.failedFuture(e);
+        }
+
+        cursor.whenComplete(subscription::open);
+    }
+
+    /**
+     * A forward-only cursor over a set of accounts.
+     */
+    public interface Cursor extends AutoCloseable {
+
+        /**
+         * Reads the next account from the cursor.
+         *
+         * @return The next account, or null if the cursor has been exhausted
+         * @throws Exception If the account could not be read
+         */
+        @Nullable Account next() throws Exception;
+
+        /**
+         * Creates a cursor over the given accounts.
+         *
+         * @param accounts The accounts to iterate over
+         * @return A cursor over the given accounts
+         */
+        static Cursor of(final @NotNull Collection<Account> accounts) {
+            Iterator<Account> iterator = accounts.iterator();
+            return new Cursor() {
+                @Override
+                public @Nullable Account next() {
+                    return iterator.hasNext() ? iterator.next() : null;
+                }
+
+                @Override
+                public void close() {}
+            };
+        }
+
+    }
+
+    /**
+     * Binds the parameters of a statement, such as the key of the currency being selected.
+     */
+    @FunctionalInterface
+    public interface Binder {
+
+        void bind(PreparedStatement statement) throws SQLException;
+
+    }
+
+    /**
+     * Maps the current row of a result set to an account.
+     */
+    @FunctionalInterface
+    public interface Mapper {
+
+        Account map(ResultSet row) throws SQLException;
+
+    }
+
+    private static final class CursorSubscription implements Flow.Subscription {
+
+        private final Flow.Subscriber<? super Account> subscriber;
+        private final Executor executor;
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger work = new AtomicInteger();
+
+        private volatile Cursor cursor;
+        private volatile boolean cancelled;
+        private volatile Throwable failure;
+
+        private CursorSubscription(Flow.Subscriber<? super Account> subscriber, Executor executor) {
+            this.subscriber = subscriber;
+            this.executor = executor;
+        }
+
+        @Override
+        public void request(long n) {
+            if(n <= 0) {
+                this.failure = new IllegalArgumentException("Requested a non-positive number of accounts: " + n);
+            } else {
+                this.requested.getAndAccumulate(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            }
+
+            this.schedule();
+        }
+
+        @Override
+        public void cancel() {
+            this.cancelled = true;
+            this.schedule();
+        }
+
+        private void open(Cursor cursor, Throwable error) {
+            if(error != null) {
+                if(!this.cancelled) {
+                    this.subscriber.onError(error);
+                }
+
+                return;
+            }
+
+            this.cursor = cursor;
+            this.schedule();
+        }
+
+        private void schedule() {
+            if(this.cursor != null && this.work.getAndIncrement() == 0) {
+                this.executor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            int missed = 1;
+            do {
+                long requested = this.requested.get();
+                long emitted = 0;
+                while(emitted != requested || this.failure != null || this.cancelled) {
+                    if(this.cancelled) {
+                        this.close();
+                        return;
+                    }
+
+                    if(this.failure != null) {
+                        this.close();
+                        this.subscriber.onError(this.failure);
+                        return;
+                    }
+
+                    Account account;
+                    try {
+                        account = this.cursor.next();
+                    } catch (Throwable e) {
+                        this.close();
+                        this.subscriber.onError(e);
+                        return;
+                    }
+
+                    if(account == null) {
+                        this.close();
+                        this.subscriber.onComplete();
+                        return;
+                    }
+
+                    this.subscriber.onNext(account);
+                    emitted++;
+                }
+
+                if(emitted != 0 && requested != Long.MAX_VALUE) {
+                    this.requested.addAndGet(-emitted);
+                }
+
+                missed = this.work.addAndGet(-missed);
+            } while(missed != 0);
+        }
+
+        private void close() {
+            try {
+                this.cursor.close();
+            } catch (Exception ignored) {}
+        }
+
+    }
+
+    private static final class JdbcCursor implements Cursor {
+
+        private final Connection connection;
+        private final boolean commit;
+        private final boolean readOnly;
+        private final PreparedStatement statement;
+        private final ResultSet results;
+        private final Mapper mapper;
+
+        private JdbcCursor(SQLConnection connection, String statement, Binder binder, Mapper mapper, int fetch) throws SQLException {
+            this.connection = connection.connection();
+            this.commit = this.connection.getAutoCommit();
+            this.readOnly = this.connection.isReadOnly();
+            this.mapper = mapper;
+            try {
+                this.connection.setReadOnly(true);
+                this.connection.setAutoCommit(false);
+                this.statement = this.connection.prepareStatement(
+                        connection.statementProcessor().apply(statement),
+                        ResultSet.TYPE_FORWARD_ONLY,
+                        ResultSet.CONCUR_READ_ONLY
+                );
+                this.statement.setFetchSize(fetch);
+                binder.bind(this.statement);
+                this.results = this.statement.executeQuery();
+            } catch (SQLException e) {
+                try {
+                    this.release();
+                } catch (SQLException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+
+                throw e;
+            }
+        }
+
+        @Override
+        public @Nullable Account next() throws SQLException {
+            return this.results.next() ? this.mapper.map(this.results) : null;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try {
+                this.results.close();
+                this.statement.close();
+            } finally {
+                this.release();
+            }
+        }
+
+        private void release() throws SQLException {
+            try {
+                this.connection.rollback();
+                this.connection.setAutoCommit(this.commit);
+                this.connection.setReadOnly(this.readOnly);
+            } finally {
+                this.connection.close();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,203 @@
+/*
+ * This file is part of Impactor, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2018-2022 NickImpact
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package net.impactdev.impactor.api.economy.storage;
+
+import com.google.common.base.Preconditions;
+import net.impactdev.impactor.api.economy.accounts.Account;
+import net.impactdev.impactor.api.economy.currency.Currency;
+import net.kyori.adventure.key.Key;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves accounts in bulk on behalf of an {@link net.impactdev.impactor.api.economy.EconomyService EconomyService}
+ * implementation, backing {@link net.impactdev.impactor.api.economy.EconomyService#accounts(Currency, Collection)}.
+ * Requested owners are split into chunks, each of which is resolved by a single {@link Query}, such as a
+ * {@code SELECT ... WHERE uuid IN (...)} against SQL storage, or a single pass over flat-file storage.
+ *
+ * <p>Loads are deduplicated while in flight. Should an owner be requested while a load for the same currency and
+ * owner is already in progress, whether through a bulk request or {@link #load(Currency, UUID) individually},
+ * the request joins the existing load rather than issuing another query. Once a load completes, it is no longer
+ * tracked, such that caching resolved accounts remains the responsibility of the service.</p>
+ *
+ * @since 5.2.0
+ */
+public final class BulkAccountLoader {
+
+    private final Query query;
+    private final int chunk;
+    private final Map<Entry, CompletableFuture<Account>> loading = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a loader resolving accounts through the given query, issuing at most the given number of
+     * owners per query. The chunk size should respect the parameter limits of the underlying storage,
+     * which for SQL storage is typically a few hundred to a few thousand parameters.
+     *
+     * @param query The query used to resolve a chunk of accounts
+     * @param chunk The maximum number of owners resolved by a single query
+     */
+    public BulkAccountLoader(final @NotNull Query query, final int chunk) {
+        Preconditions.checkArgument(chunk > 0, "Chunk size must be positive");
+        this.query = query;
+        this.chunk = chunk;
+    }
+
+    /**
+     * Resolves the account bound to the given currency for the given owner, joining any load for
+     * the same account already in flight.
+     *
+     * @param currency The currency of the account
+     * @param owner The owner of the account
+     * @return The resolved account, or null if the query did not supply one
+     */
+    public CompletableFuture<Account> load(final @NotNull Currency currency, final @NotNull UUID owner) {
+        return this.load(currency, List.of(owner)).thenApply(accounts -> accounts.get(owner));
+    }
+
+    /**
+     * Resolves the accounts bound to the given currency for each of the given owners. Owners not yet being
+     * loaded are resolved in chunks, while the remaining owners join the loads already in flight.
+     *
+     * @param currency The currency of the accounts
+     * @param owners The owners of the accounts
+     * @return A map of each owner to their resolved account, omitting owners the query did not supply
+     * an account for
+     */
+    public CompletableFuture<Map<UUID, Account>> load(final @NotNull Currency currency, final @NotNull Collection<UUID> owners) {
+        Key key = currency.key();
+        Map<UUID, CompletableFuture<Account>> futures = new LinkedHashMap<>();
+        List<UUID> pending = new ArrayList<>();
+        for(UUID owner : owners) {
+            if(futures.containsKey(owner)) {
+                continue;
+            }
+
+            CompletableFuture<Account> future = new CompletableFuture<>();
+            CompletableFuture<Account> existing = this.loading.putIfAbsent(new Entry(key, owner), future);
+            if(existing == null) {
+                pending.add(owner);
+                futures.put(owner, future);
+            } else {
+                futures.put(owner, existing);
+            }
+        }
+
+        for(int i = 0; i < pending.size(); i += this.chunk) {
+            this.dispatch(currency, pending.subList(i, Math.min(i + this.chunk, pending.size())));
+        }
+
+        return CompletableFuture.allOf(futures.values().toArray(CompletableFuture[]::new)).thenApply(ignored -> {
+            Map<UUID, Account> accounts = new LinkedHashMap<>();
+            futures.forEach((owner, future) -> {
+                Account account = future.join();
+                if(account != null) {
+                    accounts.put(owner, account);
+                }
+            });
+
+            return accounts;
+        });
+    }
+
+    /**
+     * Provides the number of accounts currently being loaded.
+     *
+     * @return The number of accounts in flight
+     */
+    public int loading() {
+        return this.loading.size();
+    }
+
+    private void dispatch(Currency currency, List<UUID> owners) {
+        Key key = currency.key();
+        CompletableFuture<Map<UUID, Account>> result;
+        try {
+            result = this.query.load(currency, Set.copyOf(owners));
+        } catch (Exception e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+
+        if(result == null) {
+            result = CompletableFuture.failedFuture(new IllegalStateException("Query supplied no result for " + owners.size() + " owners"));
+        }
+
+        result.whenComplete((accounts, error) -> {
+            Throwable failure = error;
+            if(failure == null && accounts == null) {
+                failure = new IllegalStateException("Query supplied no accounts for " + owners.size() + " owners");
+            }
+
+            // Every owner must be completed and released, regardless of how any other owner resolves,
+            // otherwise later loads of the owner would join a future which never completes
+            for(UUID owner : owners) {
+                CompletableFuture<Account> future = this.loading.remove(new Entry(key, owner));
+                if(future == null) {
+                    continue;
+                }
+
+                if(failure != null) {
+                    future.completeExceptionally(failure);
+                    continue;
+                }
+
+                try {
+                    future.complete(accounts.get(owner));
+                } catch (Exception e) {
+                    future.completeExceptionally(e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Resolves a chunk of accounts from storage within a single operation.
+     */
+    @FunctionalInterface
+    public interface Query {
+
+        /**
+         * Resolves the accounts bound to the given currency for each of the given owners, following the
+         * same rules as {@link net.impactdev.impactor.api.economy.EconomyService#account(Currency, UUID)}.
+         *
+         * @param currency The currency of the accounts
+         * @param owners The owners of the accounts, never exceeding the chunk size of the loader
+         * @return A map of each owner to their account, which must not be null
+         */
+        CompletableFuture<Map<UUID, Account>> load(Currency currency, Set<UUID> owners);
+
+    }
+
+    private record Entry(Key currency, UUID owner) {}
+
+}
@@ -0,0 +1,421 @@
+/*
+ * This file is part of Impactor, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2018-2022 NickImpact
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package net.impactdev.impactor.api.economy.storage;
+
+import com.google.common.base.Preconditions;
+import net.impactdev.impactor.api.economy.EconomyService;
+import net.impactdev.impactor.api.economy.accounts.Account;
+import net.impactdev.impactor.api.economy.events.EconomyTransactionEvent;
+import net.impactdev.impactor.api.economy.events.EconomyTransferTransactionEvent;
+import net.impactdev.impactor.api.events.ImpactorEventBus;
+import net.impactdev.impactor.api.logging.PluginLogger;
+import net.impactdev.impactor.api.scheduler.SchedulerTask;
+import net.impactdev.impactor.api.scheduler.v2.Scheduler;
+import net.impactdev.impactor.api.storage.Storage;
+import net.impactdev.impactor.api.utility.printing.PrettyPrinter;
+import net.kyori.adventure.key.Key;
+import net.kyori.event.EventSubscriber;
+import net.kyori.event.EventSubscription;
+import net.kyori.event.PostOrders;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A write-behind layer in front of {@link EconomyService#save(Account)}. Rather than saving an account after
+ * each transaction, accounts are {@link #mark(Account) marked} as dirty, and later written to storage in batches
+ * via {@link EconomyService#saveAll(java.util.Collection)}. Dirty accounts are flushed periodically once the cache
+ * has been {@link #start(Duration) started}, as well as whenever the number of dirty accounts reaches the
+ * configured threshold.
+ *
+ * <p>An account is tracked by its currency and owner, such that an account marked several times between flushes
+ * is only written once. Should a batch fail to be written, its accounts are marked as dirty again, and will be
+ * attempted once more on the following flush. Flushes never overlap, with each flush only starting once the
+ * previous flush has completed.</p>
+ *
+ * <p>To ensure no changes are lost as the server stops, the cache should be {@link #guard(Storage) bound} to the
+ * storage provider it writes to, such that it is flushed in full before the provider is shutdown. Once closed,
+ * any account marked as dirty is instead saved immediately.</p>
+ *
+ * @since 5.2.0
+ */
+public final class WriteBehindAccountCache {
+
+    private final EconomyService service;
+    private final Scheduler scheduler;
+    private final PluginLogger logger;
+    private final Map<Entry, Account> dirty = new ConcurrentHashMap<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    private final LongAdder written = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+    private final AtomicLong last = new AtomicLong();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    private volatile int threshold = 1000;
+    private volatile int batch = 250;
+    private volatile boolean closed;
+    private SchedulerTask task;
+    private CompletableFuture<Void> flushing = CompletableFuture.completedFuture(null);
+
+    /**
+     * Creates a cache which writes accounts through the given service, and performs its automatic flushes
+     * on the given scheduler.
+     *
+     * @param service The service accounts are saved through
+     * @param scheduler The scheduler to flush on, which should not be the main thread
+     * @param logger The logger used to report accounts which failed to save
+     */
+    public WriteBehindAccountCache(final @NotNull EconomyService service, final @NotNull Scheduler scheduler, final @NotNull PluginLogger logger) {
+        this.service = service;
+        this.scheduler = scheduler;
+        this.logger = logger;
+    }
+
+    /**
+     * Updates the number of dirty accounts at which a flush is triggered, regardless of the flush interval.
+     *
+     * @param threshold The number of dirty accounts triggering a flush
+     * @return This cache
+     */
+    public WriteBehindAccountCache threshold(final int threshold) {
+        Preconditions.checkArgument(threshold > 0, "Threshold must be positive");
+        this.threshold = threshold;
+        return this;
+    }
+
+    /**
+     * Updates the maximum number of accounts written within a single call to {@link EconomyService#saveAll(java.util.Collection)}.
+     *
+     * @param batch The maximum size of a batch
+     * @return This cache
+     */
+    public WriteBehindAccountCache batch(final int batch) {
+        Preconditions.checkArgument(batch > 0, "Batch size must be positive");
+        this.batch = batch;
+        return this;
+    }
+
+    /**
+     * Begins flushing dirty accounts on the given interval.
+     *
+     * @param interval The interval between flushes
+     * @return This cache
+     */
+    public synchronized WriteBehindAccountCache start(final @NotNull Duration interval) {
+        Preconditions.checkState(!this.closed, "Cache has been closed");
+        Preconditions.checkState(this.task == null, "Cache has already been started");
+        Preconditions.checkArgument(!interval.isNegative() && !interval.isZero(), "Interval must be positive");
+        this.task = this.scheduler.repeating(this::trigger, interval.toMillis(), TimeUnit.MILLISECONDS);
+        return this;
+    }
+
+    /**
+     * Marks every account involved in a successful transaction posted to the given bus as dirty.
+     *
+     * @param bus The bus to track transactions from
+     * @return A subscription which can be used to stop tracking transactions
+     */
+    public EventSubscription attach(final @NotNull ImpactorEventBus bus) {
+        EventSubscription transactions = bus.subscribe(EconomyTransactionEvent.Post.class, new EventSubscriber<>() {
+            @Override
+            public void on(final @NonNull EconomyTransactionEvent.Post event) {
+                if(event.transaction().successful()) {
+                    WriteBehindAccountCache.this.mark(event.account());
+                }
+            }
+
+            @Override
+            public int postOrder() {
+                return PostOrders.LAST;
+            }
+        });
+        EventSubscription transfers = bus.subscribe(EconomyTransferTransactionEvent.Post.class, new EventSubscriber<>() {
+            @Override
+            public void on(final @NonNull EconomyTransferTransactionEvent.Post event) {
+                if(event.transaction().successful()) {
+                    WriteBehindAccountCache.this.mark(event.from());
+                    WriteBehindAccountCache.this.mark(event.to());
+                }
+            }
+
+            @Override
+            public int postOrder() {
+                return PostOrders.LAST;
+            }
+        });
+
+        return () -> {
+            transactions.unsubscribe();
+            transfers.unsubscribe();
+        };
+    }
+
+    /**
+     * Marks the given account as dirty, such that it will be written to storage on the next flush. If the
+     * cache has been closed, the account is instead saved immediately, and a failure to save it is reported
+     * to the cache's logger.
+     *
+     * @param account The account which has been modified
+     */
+    public void mark(final @NotNull Account account) {
+        if(this.closed) {
+            this.save(account);
+            return;
+        }
+
+        Entry entry = new Entry(account.currency().key(), account.owner());
+        this.dirty.put(entry, account);
+        if(this.closed) {
+            // The cache was closed while marking, and its final flush may have missed this account
+            if(this.dirty.remove(entry, account)) {
+                this.save(account);
+            }
+
+            return;
+        }
+
+        if(this.dirty.size() >= this.threshold) {
+            this.trigger();
+        }
+    }
+
+    /**
+     * Writes every account currently marked as dirty to storage. If a flush is already in progress, this
+     * flush begins once it has completed. Accounts marked while the flush is in progress may or may not be
+     * included, and are otherwise written on the next flush.
+     *
+     * @return A future which completes once every batch has been written, or exceptionally if any batch
+     * failed to be written
+     */
+    public CompletableFuture<Void> flush() {
+        return this.enqueue(true);
+    }
+
+    /**
+     * Stops periodic flushing, and writes every remaining dirty account to storage, blocking until
+     * complete. A flush already in progress is awaited first, such that accounts it fails to write are
+     * included in the final flush. Accounts which fail to be written by the final flush are not retried,
+     * and instead fail the close. Any account marked after this point is saved immediately.
+     *
+     * @throws Exception If any account failed to be written
+     */
+    public void close() throws Exception {
+        synchronized(this) {
+            this.closed = true;
+            if(this.task != null) {
+                this.task.cancel();
+                this.task = null;
+            }
+        }
+
+        CompletableFuture<Void> flush = this.enqueue(false);
+        try {
+            flush.join();
+        } catch (Exception e) {
+            this.logger.severe("Failed to write every dirty account during shutdown");
+            throw e;
+        }
+    }
+
+    /**
+     * Wraps the given storage provider, such that this cache is {@link #close() closed} and flushed in full
+     * prior to the provider itself being shutdown. The metadata of the returned provider additionally
+     * includes the statistics of this cache.
+     *
+     * @param storage The storage provider accounts are written to
+     * @return A storage provider guarding this cache
+     */
+    public Storage guard(final @NotNull Storage storage) {
+        return new Storage() {
+            @Override
+            public void init() throws Exception {
+                storage.init();
+            }
+
+            @Override
+            public void shutdown() throws Exception {
+                try {
+                    WriteBehindAccountCache.this.close();
+                } finally {
+                    storage.shutdown();
+                }
+            }
+
+            @Override
+            public CompletableFuture<Void> meta(PrettyPrinter printer) {
+                return storage.meta(printer).thenRun(() -> {
+                    CacheStatistics statistics = WriteBehindAccountCache.this.statistics();
+                    printer.kv("Dirty Accounts", statistics.dirty());
+                    printer.kv("Flushes", statistics.flushes() + " (" + statistics.failures() + " failed)");
+                    printer.kv("Flush Latency", statistics.mean().toMillis() + "ms avg, " + statistics.max().toMillis() + "ms max");
+                });
+            }
+        };
+    }
+
+    /**
+     * Provides a snapshot of the metrics tracked by this cache.
+     *
+     * @return The statistics of this cache
+     */
+    public CacheStatistics statistics() {
+        long flushes = this.flushes.sum();
+        return new CacheStatistics(
+                this.dirty.size(),
+                this.written.sum(),
+                flushes,
+                this.failures.sum(),
+                Duration.ofNanos(this.last.get()),
+                Duration.ofNanos(flushes == 0 ? 0 : this.nanos.sum() / flushes),
+                Duration.ofNanos(this.max.get())
+        );
+    }
+
+    private CompletableFuture<Void> enqueue(final boolean retry) {
+        CompletableFuture<Void> previous;
+        CompletableFuture<Void> next = new CompletableFuture<>();
+        synchronized(this) {
+            previous = this.flushing;
+            this.flushing = next;
+        }
+
+        previous.handle((ignored, error) -> null)
+                .thenCompose(ignored -> this.drain(retry))
+                .whenComplete((ignored, error) -> {
+                    if(error != null) {
+                        next.completeExceptionally(error);
+                    } else {
+                        next.complete(null);
+                    }
+                });
+        return next;
+    }
+
+    private CompletableFuture<Void> drain(final boolean retry) {
+        int size = this.batch;
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        List<Account> batch = new ArrayList<>(size);
+        for(Map.Entry<Entry, Account> entry : this.dirty.entrySet()) {
+            if(this.dirty.remove(entry.getKey(), entry.getValue())) {
+                batch.add(entry.getValue());
+                if(batch.size() == size) {
+                    pending.add(this.write(batch, retry));
+                    batch = new ArrayList<>(size);
+                }
+            }
+        }
+
+        if(!batch.isEmpty()) {
+            pending.add(this.write(batch, retry));
+        }
+
+        return CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new));
+    }
+
+    private void trigger() {
+        if(!this.closed && !this.dirty.isEmpty() && this.scheduled.compareAndSet(false, true)) {
+            this.scheduler.publish(() -> this.flush().whenComplete((ignored, error) -> this.scheduled.set(false)));
+        }
+    }
+
+    private void save(Account account) {
+        CompletableFuture<Void> future;
+        try {
+            future = this.service.save(account);
+        } catch (Exception e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+
+        future.whenComplete((ignored, error) -> {
+            if(error != null) {
+                this.logger.severe("Failed to save account " + account.owner() + " after the cache was closed", error);
+            }
+        });
+    }
+
+    private CompletableFuture<Void> write(List<Account> accounts, boolean retry) {
+        long start = System.nanoTime();
+        CompletableFuture<Void> future;
+        try {
+            future = this.service.saveAll(accounts);
+        } catch (Exception e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+
+        return future.whenComplete((ignored, error) -> {
+            long elapsed = System.nanoTime() - start;
+            this.flushes.increment();
+            this.nanos.add(elapsed);
+            this.last.set(elapsed);
+            this.max.accumulate(elapsed);
+            if(error != null) {
+                this.failures.increment();
+                if(!retry) {
+                    this.logger.severe("Failed to write a batch of " + accounts.size() + " accounts during shutdown", error);
+                    return;
+                }
+
+                for(Account account : accounts) {
+                    this.dirty.putIfAbsent(new Entry(account.currency().key(), account.owner()), account);
+                }
+
+                this.logger.severe("Failed to write a batch of " + accounts.size() + " accounts, retrying on next flush", error);
+            } else {
+                this.written.add(accounts.size());
+            }
+        });
+    }
+
+    private record Entry(Key currency, UUID owner) {}
+
+    /**
+     * Represents a snapshot of the metrics tracked by a {@link WriteBehindAccountCache}.
+     *
+     * @param dirty The number of accounts currently awaiting a write
+     * @param written The total number of accounts successfully written
+     * @param flushes The total number of batches written, including failures
+     * @param failures The number of batches which failed to be written
+     * @param last The time taken to write the most recent batch
+     * @param mean The mean time taken to write a batch
+     * @param max The longest time taken to write a batch
+     */
+    public record CacheStatistics(int dirty, long written, long flushes, long failures, Duration last, Duration mean, Duration max) {}
+
+}
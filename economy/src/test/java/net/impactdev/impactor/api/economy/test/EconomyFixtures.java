@@ -0,0 +1,76 @@
+/*
+ * This file is part of Impactor, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2018-2022 NickImpact
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package net.impactdev.impactor.api.economy.test;
+
+import net.impactdev.impactor.api.economy.accounts.Account;
+import net.impactdev.impactor.api.economy.currency.Currency;
+import net.kyori.adventure.key.Key;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Provides the proxied currencies and accounts shared by the economy tests.
+ */
+final class EconomyFixtures {
+
+    static final Key KEY = Key.key("impactor", "dollars");
+    static final Currency CURRENCY = proxy(Currency.class, (proxy, method, args) ->
+            method.getName().equals("key") ? KEY : null
+    );
+
+    private EconomyFixtures() {}
+
+    static Account account(UUID owner) {
+        return account(owner, BigDecimal.ZERO);
+    }
+
+    static Account account(UUID owner, BigDecimal balance) {
+        return proxy(Account.class, (proxy, method, args) -> switch(method.getName()) {
+            case "currency" -> CURRENCY;
+            case "owner" -> owner;
+            case "balance" -> balance;
+            case "virtual" -> false;
+            default -> null;
+        });
+    }
+
+    /**
+     * Creates a proxy of the given interface, which is equal only to itself, and otherwise answers
+     * every invocation through the given handler.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(EconomyFixtures.class.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> switch(method.getName()) {
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "equals" -> proxy == args[0];
+            default -> handler.invoke(proxy, method, args);
+        });
+    }
+
+}
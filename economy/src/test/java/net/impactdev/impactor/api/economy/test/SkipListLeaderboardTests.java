@@ -0,0 +1,153 @@
+/*
+ * This file is part of Impactor, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2018-2022 NickImpact
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package net.impactdev.impactor.api.economy.test;
+
+import net.impactdev.impactor.api.economy.EconomyService;
+import net.impactdev.impactor.api.economy.accounts.Account;
+import net.impactdev.impactor.api.economy.leaderboard.Leaderboard;
+import net.impactdev.impactor.api.economy.leaderboard.SkipListLeaderboard;
+import net.impactdev.impactor.api.economy.storage.AccountPublisher;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static net.impactdev.impactor.api.economy.test.EconomyFixtures.CURRENCY;
+import static net.impactdev.impactor.api.economy.test.EconomyFixtures.account;
+import static net.impactdev.impactor.api.economy.test.EconomyFixtures.proxy;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class SkipListLeaderboardTests {
+
+    @Test
+    public void differential() {
+        Random random = new Random(7);
+        for(int round = 0; round < 20; round++) {
+            SkipListLeaderboard leaderboard = new SkipListLeaderboard(CURRENCY);
+            Map<UUID, BigDecimal> expected = new HashMap<>();
+            for(int operation = 0; operation < 5000; operation++) {
+                UUID owner = new UUID(0, random.nextInt(400));
+                if(random.nextInt(10) == 0) {
+                    leaderboard.remove(owner);
+                    expected.remove(owner);
+                } else {
+                    BigDecimal balance = BigDecimal.valueOf(random.nextInt(50), random.nextInt(3));
+                    leaderboard.update(owner, balance);
+                    expected.put(owner, balance);
+                }
+            }
+
+            List<UUID> sorted = new ArrayList<>(expected.keySet());
+            sorted.sort(Comparator.comparing((UUID owner) -> expected.get(owner)).reversed().thenComparing(Comparator.naturalOrder()));
+            assertEquals(sorted.size(), leaderboard.size());
+
+            List<Leaderboard.Entry> entries = leaderboard.top(Integer.MAX_VALUE);
+            assertEquals(sorted.size(), entries.size());
+            for(int i = 0; i < sorted.size(); i++) {
+                assertEquals(sorted.get(i), entries.get(i).owner());
+                assertEquals(i + 1, entries.get(i).rank());
+                assertEquals(0, expected.get(sorted.get(i)).compareTo(entries.get(i).balance()));
+                assertEquals(i + 1, leaderboard.rank(sorted.get(i)).getAsInt());
+            }
+
+            for(int rank = 1; rank <= sorted.size(); rank += 37) {
+                List<Leaderboard.Entry> page = leaderboard.range(rank, 10);
+                assertEquals(Math.min(10, sorted.size() - rank + 1), page.size());
+                for(int i = 0; i < page.size(); i++) {
+                    assertEquals(sorted.get(rank - 1 + i), page.get(i).owner());
+                }
+            }
+
+            assertTrue(leaderboard.range(sorted.size() + 1, 5).isEmpty());
+            assertFalse(leaderboard.rank(new UUID(1, 1)).isPresent());
+        }
+    }
+
+    @Test
+    public void sharedRetriesFailedRebuild() {
+        AtomicInteger streams = new AtomicInteger();
+        EconomyService service = service(() -> {
+            if(streams.getAndIncrement() == 0) {
+                return CompletableFuture.failedFuture(new IllegalStateException("Connection reset"));
+            }
+
+            return CompletableFuture.completedFuture(List.of(account(new UUID(0, 1), BigDecimal.valueOf(10)), account(new UUID(0, 2), BigDecimal.valueOf(20))));
+        });
+
+        try {
+            assertThrows(CompletionException.class, () -> SkipListLeaderboard.shared(service, CURRENCY).join());
+
+            Leaderboard leaderboard = SkipListLeaderboard.shared(service, CURRENCY).join();
+            assertEquals(2, streams.get());
+            assertEquals(2, leaderboard.size());
+            assertEquals(new UUID(0, 2), leaderboard.top(1).get(0).owner());
+            assertSame(leaderboard, SkipListLeaderboard.shared(service, CURRENCY).join());
+        } finally {
+            SkipListLeaderboard.release(service);
+        }
+    }
+
+    @Test
+    public void sharedPerService() {
+        EconomyService first = service(() -> CompletableFuture.completedFuture(List.of(account(new UUID(0, 1), BigDecimal.valueOf(10)))));
+        EconomyService second = service(() -> CompletableFuture.completedFuture(List.of()));
+
+        try {
+            Leaderboard leaderboard = SkipListLeaderboard.shared(first, CURRENCY).join();
+            assertEquals(1, leaderboard.size());
+            assertEquals(0, SkipListLeaderboard.shared(second, CURRENCY).join().size());
+
+            SkipListLeaderboard.release(first);
+            assertNotSame(leaderboard, SkipListLeaderboard.shared(first, CURRENCY).join());
+        } finally {
+            SkipListLeaderboard.release(first);
+            SkipListLeaderboard.release(second);
+        }
+    }
+
+    private static EconomyService service(Supplier<CompletableFuture<? extends Collection<Account>>> accounts) {
+        return proxy(EconomyService.class, (proxy, method, args) -> switch(method.getName()) {
+            case "stream" -> AccountPublisher.of(accounts);
+            default -> null;
+        });
+    }
+
+}
@@ -0,0 +1,193 @@
+/*
+ * This file is part of Impactor, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2018-2022 NickImpact
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package net.impactdev.impactor.api.economy.test;
+
+import net.impactdev.impactor.api.economy.EconomyService;
+import net.impactdev.impactor.api.economy.accounts.Account;
+import net.impactdev.impactor.api.economy.storage.WriteBehindAccountCache;
+import net.impactdev.impactor.api.logging.NoOpLogger;
+import net.impactdev.impactor.api.scheduler.v2.Scheduler;
+import net.impactdev.impactor.api.storage.Storage;
+import net.impactdev.impactor.api.utility.printing.PrettyPrinter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static net.impactdev.impactor.api.economy.test.EconomyFixtures.account;
+import static net.impactdev.impactor.api.economy.test.EconomyFixtures.proxy;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class WriteBehindAccountCacheTests {
+
+    @Test
+    @Timeout(10)
+    public void shutdownDuringFlush() throws Exception {
+        CompletableFuture<Void> blocked = new CompletableFuture<>();
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        Set<UUID> written = ConcurrentHashMap.newKeySet();
+
+        EconomyService service = service(accounts -> {
+            if(calls.getAndIncrement() == 0) {
+                started.countDown();
+                return blocked;
+            }
+
+            accounts.forEach(account -> written.add(account.owner()));
+            return CompletableFuture.completedFuture(null);
+        });
+
+        WriteBehindAccountCache cache = new WriteBehindAccountCache(service, scheduler(), new NoOpLogger());
+        Account first = account(new UUID(0, 1));
+        Account second = account(new UUID(0, 2));
+        Account third = account(new UUID(0, 3));
+
+        cache.mark(first);
+        cache.mark(second);
+        CompletableFuture<Void> flush = cache.flush();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        cache.mark(third);
+
+        AtomicBoolean shutdown = new AtomicBoolean();
+        Storage storage = cache.guard(storage(() -> {
+            assertTrue(flush.isDone(), "Storage was shutdown while a flush was in progress");
+            shutdown.set(true);
+        }));
+
+        Thread closer = new Thread(() -> {
+            try {
+                storage.shutdown();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        closer.start();
+
+        closer.join(200);
+        assertTrue(closer.isAlive(), "Shutdown did not wait for the flush in progress");
+        assertFalse(shutdown.get());
+
+        // The in-flight batch fails, and should be picked up by the final flush rather than lost
+        blocked.completeExceptionally(new IllegalStateException("Connection reset"));
+        closer.join();
+
+        assertTrue(shutdown.get());
+        assertTrue(flush.isCompletedExceptionally());
+        assertEquals(Set.of(first.owner(), second.owner(), third.owner()), written);
+        assertEquals(0, cache.statistics().dirty());
+    }
+
+    @Test
+    @Timeout(10)
+    public void failedShutdownFlush() {
+        AtomicBoolean shutdown = new AtomicBoolean();
+        EconomyService service = service(accounts -> CompletableFuture.failedFuture(new IllegalStateException("Connection reset")));
+        WriteBehindAccountCache cache = new WriteBehindAccountCache(service, scheduler(), new NoOpLogger());
+        cache.mark(account(new UUID(0, 1)));
+
+        Storage storage = cache.guard(storage(() -> shutdown.set(true)));
+        assertThrows(CompletionException.class, storage::shutdown);
+        assertTrue(shutdown.get());
+        assertEquals(0, cache.statistics().dirty(), "Failed accounts were marked dirty after the cache was closed");
+    }
+
+    @Test
+    public void markAfterClose() throws Exception {
+        List<UUID> saved = new CopyOnWriteArrayList<>();
+        EconomyService service = proxy(EconomyService.class, (proxy, method, args) -> {
+            if(method.getName().equals("save")) {
+                saved.add(((Account) args[0]).owner());
+                return CompletableFuture.completedFuture(null);
+            }
+
+            return method.getName().equals("saveAll") ? CompletableFuture.completedFuture(null) : null;
+        });
+
+        WriteBehindAccountCache cache = new WriteBehindAccountCache(service, scheduler(), new NoOpLogger());
+        cache.close();
+        cache.mark(account(new UUID(0, 1)));
+
+        assertEquals(List.of(new UUID(0, 1)), saved);
+        assertEquals(0, cache.statistics().dirty());
+    }
+
+    private static EconomyService service(Writer writer) {
+        return proxy(EconomyService.class, (proxy, method, args) -> {
+            if(method.getName().equals("saveAll")) {
+                @SuppressWarnings("unchecked")
+                Collection<Account> accounts = (Collection<Account>) args[0];
+                return writer.write(accounts);
+            }
+
+            return null;
+        });
+    }
+
+    private static Scheduler scheduler() {
+        return proxy(Scheduler.class, (proxy, method, args) -> {
+            throw new UnsupportedOperationException(method.getName());
+        });
+    }
+
+    private static Storage storage(Runnable shutdown) {
+        return new Storage() {
+            @Override
+            public void init() {}
+
+            @Override
+            public void shutdown() {
+                shutdown.run();
+            }
+
+            @Override
+            public CompletableFuture<Void> meta(PrettyPrinter printer) {
+                return CompletableFuture.completedFuture(null);
+            }
+        };
+    }
+
+    @FunctionalInterface
+    private interface Writer {
+
+        CompletableFuture<Void> write(Collection<Account> accounts);
+
+    }
+
+}
@@ -0,0 +1,114 @@
+/*
+ * This file is part of Impactor, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2018-2022 NickImpact
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package net.impactdev.impactor.api.platform.players.tasks;
+
+import com.google.common.base.Preconditions;
+import net.impactdev.impactor.api.Impactor;
+import net.impactdev.impactor.api.events.ImpactorEventBus;
+import net.impactdev.impactor.api.platform.players.PlatformPlayer;
+import net.impactdev.impactor.api.platform.players.PlatformPlayerService;
+import net.impactdev.impactor.api.platform.players.events.ClientConnectionEvent;
+import net.impactdev.impactor.api.scheduler.v2.TaskGroup;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maintains the {@link TaskGroup task groups} bound to each online player. A player's group is created on first
+ * request, and is automatically cancelled and released once the player disconnects, ensuring tasks such as
+ * scoreboard updates do not outlive the player they were scheduled for.
+ *
+ * <p>The disconnect listener is subscribed to the {@link ImpactorEventBus#bus() global bus} as this class is
+ * initialized, and is therefore in place before any group can exist. Requesting the group of a player who is not
+ * online provides a group which has already been cancelled, such that any task scheduled through it is cancelled
+ * immediately rather than being retained for a player who may never disconnect.</p>
+ *
+ * @since 5.2.0
+ */
+public final class PlayerTaskGroups {
+
+    private static final Map<UUID, TaskGroup> groups = new ConcurrentHashMap<>();
+
+    static {
+        ImpactorEventBus.bus().subscribe(ClientConnectionEvent.Disconnect.class, event -> release(event.player().uuid()));
+    }
+
+    /**
+     * Provides the task group bound to the given player, creating it if necessary.
+     *
+     * @param player The player owning the group
+     * @return The task group bound to the player, which is already cancelled if the player is not online
+     */
+    public static TaskGroup group(final @NotNull PlatformPlayer player) {
+        Preconditions.checkNotNull(player);
+        return group(player.uuid());
+    }
+
+    /**
+     * Provides the task group bound to the player with the given UUID, creating it if necessary.
+     *
+     * @param uuid The UUID of the player owning the group
+     * @return The task group bound to the player, which is already cancelled if the player is not online
+     */
+    public static TaskGroup group(final @NotNull UUID uuid) {
+        Preconditions.checkNotNull(uuid);
+        TaskGroup existing = groups.get(uuid);
+        if(existing != null) {
+            return existing;
+        }
+
+        // The online check follows the insertion, such that a disconnect racing this call either finds
+        // the group to release, or has already been reflected by the player service
+        TaskGroup group = groups.computeIfAbsent(uuid, id -> TaskGroup.create("player:" + id));
+        if(!online(uuid)) {
+            groups.remove(uuid, group);
+            group.cancel();
+        }
+
+        return group;
+    }
+
+    /**
+     * Cancels every task pending within the group bound to the given player, and releases the group. This is
+     * performed automatically when the player disconnects.
+     *
+     * @param uuid The UUID of the player whose group should be released
+     */
+    public static void release(final @NotNull UUID uuid) {
+        TaskGroup group = groups.remove(uuid);
+        if(group != null) {
+            group.cancel();
+        }
+    }
+
+    private static boolean online(UUID uuid) {
+        return Impactor.instance().services().provide(PlatformPlayerService.class).online().stream()
+                .anyMatch(player -> player.uuid().equals(uuid));
+    }
+
+}
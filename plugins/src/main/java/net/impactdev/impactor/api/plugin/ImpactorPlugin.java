@@ -27,6 +27,8 @@ package net.impactdev.impactor.api.plugin;
 
 import net.impactdev.impactor.api.logging.PluginLogger;
 import net.impactdev.impactor.api.platform.plugins.PluginMetadata;
+import net.impactdev.impactor.api.scheduler.v2.TaskGroup;
+import net.impactdev.impactor.api.scheduler.v2.TaskGroups;
 
 /**
  * Represents a plugin which features the common bootstrapping functions alongside
@@ -54,6 +56,19 @@ public interface ImpactorPlugin {
 	 */
 	PluginLogger logger();
 
+	/**
+	 * Specifies the group of tasks bound to this plugin. Tasks scheduled through
+	 * {@link net.impactdev.impactor.api.scheduler.v2.Scheduler#grouped(TaskGroup)} with this group
+	 * are cancelled together once the group is released, which happens automatically after this plugin's
+	 * {@link #shutdown()} phase, or earlier via {@link TaskGroups#release(PluginMetadata)}.
+	 *
+	 * @return The task group bound to this plugin
+	 * @since 5.2.0
+	 */
+	default TaskGroup tasks() {
+		return TaskGroups.plugin(this.metadata());
+	}
+
 	/**
 	 * Fired during mod/plugin construction. This event is effectively an extension
 	 * of your plugin's constructor, and should be focused only around that.
@@ -25,9 +25,11 @@
 
 package net.impactdev.impactor.api.scoreboards.updaters.subscriber;
 
+import net.impactdev.impactor.api.events.EventIndex;
 import net.impactdev.impactor.api.events.ImpactorEvent;
 import net.impactdev.impactor.api.scoreboards.updaters.UpdaterConfiguration;
 
+import java.util.Objects;
 import java.util.function.Predicate;
 
 public interface SubscriberConfiguration extends UpdaterConfiguration<SubscriberUpdater> {
@@ -36,6 +38,25 @@ public interface SubscriberConfiguration extends UpdaterConfiguration<Subscriber
         <T extends ImpactorEvent> SubscriberConfiguration listen(Class<T> event);
 
         <T extends ImpactorEvent> SubscriberConfiguration listenAndFilter(Class<T> event, Predicate<T> filter);
+
+        /**
+         * Creates a configuration listening for events routed through the given index with a matching key.
+         *
+         * <p>By default, this falls back to {@link #listenAndFilter(Class, Predicate)}, comparing the key of
+         * every posted event, and as such performs no better than filtering manually. Only implementations which
+         * override this method to subscribe through the index itself resolve matching events through a single
+         * hash lookup.</p>
+         *
+         * @param index The index events should be routed through
+         * @param key The key of events to listen for
+         * @param <T> The type of event
+         * @param <K> The type of key
+         * @return A configuration listening for keyed events
+         * @since 5.2.0
+         */
+        default <T extends ImpactorEvent, K> SubscriberConfiguration listenFor(EventIndex<T, K> index, K key) {
+            return this.listenAndFilter(index.type(), event -> Objects.equals(index.key(event), key));
+        }
     }
 
 }
@@ -26,6 +26,7 @@
 package net.impactdev.impactor.api.scoreboards.updaters.subscriber;
 
 import net.impactdev.impactor.api.Impactor;
+import net.impactdev.impactor.api.events.EventIndex;
 import net.impactdev.impactor.api.events.ImpactorEvent;
 import net.impactdev.impactor.api.scoreboards.updaters.Updater;
 import net.kyori.event.EventSubscription;
@@ -43,5 +44,23 @@ public interface SubscriberUpdater extends Updater {
         return Impactor.instance().factories().provide(SubscriberConfiguration.Factory.class).listenAndFilter(event, filter);
     }
 
+    /**
+     * Listens for events routed through the given index with a matching key. Where the platform's
+     * {@link SubscriberConfiguration.Factory factory} subscribes through the index itself, matching events
+     * are resolved through a single hash lookup, rather than a filter evaluated for every posted event as with
+     * {@link #listenAndFilter(Class, Predicate)}. Otherwise, the factory falls back to comparing the key of
+     * every posted event, which is no faster than filtering on the key manually.
+     *
+     * @param index The index events should be routed through
+     * @param key The key of events this updater is interested in
+     * @param <T> The type of event
+     * @param <K> The type of key
+     * @return A configuration for a subscriber updater listening for keyed events
+     * @since 5.2.0
+     */
+    static <T extends ImpactorEvent, K> SubscriberConfiguration listenFor(EventIndex<T, K> index, K key) {
+        return Impactor.instance().factories().provide(SubscriberConfiguration.Factory.class).listenFor(index, key);
+    }
+
     EventSubscription subscription();
 }